@@ -0,0 +1,63 @@
+package com.controlpet.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON de uma página de relatórios, como feita pelo GET /api/relatorios.
+ * O ObjectMapper é montado pelo mesmo builder usado pelo Spring (módulo de datas etc.).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoBenchmarks {
+
+	@Param({"10", "50", "200"})
+	private int tamanho;
+
+	private ObjectWriter writer;
+	private PaginaCursor<RelatorioResponseDTO> pagina;
+
+	@Setup
+	public void setUp() {
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		writer = objectMapper.writerFor(TypeFactory.defaultInstance()
+				.constructParametricType(PaginaCursor.class, RelatorioResponseDTO.class));
+
+		List<RelatorioResponseDTO> itens = new ArrayList<>(tamanho);
+		for (int i = 1; i <= tamanho; i++) {
+			itens.add(new RelatorioResponseDTO(i, "Relatório Mensal",
+					LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31),
+					"Estudo de programação e análise de dados, semana " + i,
+					"Sem observações", i % 20, "Aluno " + (i % 20)));
+		}
+		pagina = new PaginaCursor<>(itens, String.valueOf(tamanho));
+	}
+
+	@Benchmark
+	public byte[] paginaDeRelatorios() throws JsonProcessingException {
+		return writer.writeValueAsBytes(pagina);
+	}
+}
@@ -0,0 +1,80 @@
+package com.controlpet.infra.security;
+
+import com.controlpet.model.Usuario;
+import com.controlpet.model.enums.TipoUsuario;
+import com.controlpet.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho do SecurityFilter em uma requisição autenticada: leitura do cabeçalho, validação do
+ * token (com cache) e carga do usuário pelo {@link UsuarioPrincipalCache}. O repositório é um
+ * mock, então o cache é o único acesso a dados medido.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityFilterBenchmarks {
+
+	private SecurityFilter filtro;
+	private MockHttpServletRequest requisicao;
+	private MockHttpServletResponse resposta;
+	private FilterChain cadeia;
+	private Authentication autenticacao;
+
+	@Setup
+	public void setUp() {
+		Usuario usuario = new Usuario();
+		usuario.setId(1);
+		usuario.setNome("Orientador");
+		usuario.setEmail("orientador@controlpet.com");
+		usuario.setTipo(TipoUsuario.orientador);
+
+		UsuarioRepository usuarioRepository = Mockito.mock(UsuarioRepository.class);
+		Mockito.when(usuarioRepository.findByEmail(usuario.getEmail())).thenReturn(Optional.of(usuario));
+
+		filtro = new SecurityFilter();
+		filtro.tokenService = new TokenService("token_secreto_demais_1234567890", 10_000);
+		filtro.principalCache = new UsuarioPrincipalCache(usuarioRepository, new SimpleMeterRegistry(),
+				10_000, Duration.ofMinutes(5));
+
+		requisicao = new MockHttpServletRequest("GET", "/api/relatorios");
+		requisicao.addHeader("Authorization", "Bearer " + filtro.tokenService.generateToken(usuario));
+		resposta = new MockHttpServletResponse();
+		cadeia = (req, res) -> autenticacao = SecurityContextHolder.getContext().getAuthentication();
+	}
+
+	@Benchmark
+	public Authentication requisicaoAutenticada() throws ServletException, IOException {
+		try {
+			filtro.doFilterInternal(requisicao, resposta, cadeia);
+			return autenticacao;
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+}
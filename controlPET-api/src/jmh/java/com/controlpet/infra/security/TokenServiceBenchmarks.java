@@ -0,0 +1,81 @@
+package com.controlpet.infra.security;
+
+import com.controlpet.model.Usuario;
+import com.controlpet.model.enums.TipoUsuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração e validação de JWT. "SemCache" alterna entre milhares de tokens distintos com um cache
+ * de uma entrada, medindo a verificação HMAC completa; os demais medem o caminho com cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmarks {
+
+	private static final String SECRET = "token_secreto_demais_1234567890";
+	private static final int TOKENS_DISTINTOS = 4096;
+
+	private TokenService tokenService;
+	private TokenService tokenServiceSemCache;
+	private Usuario usuario;
+	private String token;
+	private String[] tokensDistintos;
+	private int proximo;
+
+	@Setup
+	public void setUp() {
+		tokenService = new TokenService(SECRET, 10_000);
+		tokenServiceSemCache = new TokenService(SECRET, 1);
+		usuario = usuario(1);
+		token = tokenService.generateToken(usuario);
+		tokensDistintos = new String[TOKENS_DISTINTOS];
+		for (int i = 0; i < TOKENS_DISTINTOS; i++) {
+			tokensDistintos[i] = tokenService.generateToken(usuario(i + 1));
+		}
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return tokenService.generateToken(usuario);
+	}
+
+	@Benchmark
+	public String validateToken() {
+		return tokenService.validateToken(token);
+	}
+
+	@Benchmark
+	public Usuario getUserFromToken() {
+		return tokenService.getUserFromToken(token);
+	}
+
+	@Benchmark
+	public String validateTokenSemCache() {
+		proximo = (proximo + 1) % TOKENS_DISTINTOS;
+		return tokenServiceSemCache.validateToken(tokensDistintos[proximo]);
+	}
+
+	private static Usuario usuario(int id) {
+		Usuario usuario = new Usuario();
+		usuario.setId(id);
+		usuario.setNome("Usuário " + id);
+		usuario.setEmail("usuario" + id + "@controlpet.com");
+		usuario.setTipo(TipoUsuario.orientador);
+		return usuario;
+	}
+}
@@ -0,0 +1,78 @@
+package com.controlpet.service;
+
+import com.controlpet.dto.AvaliacaoRelatorioResponse;
+import com.controlpet.dto.RelatorioResponseDTO;
+import com.controlpet.model.Aluno;
+import com.controlpet.model.AvaliacaoRelatorio;
+import com.controlpet.model.Relatorio;
+import com.controlpet.model.Usuario;
+import com.controlpet.model.enums.CriterioAvaliacao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão de entidades para os DTOs de resposta: {@link RelatorioResponseDTO} a partir de um
+ * {@link Relatorio} e {@link AvaliacaoRelatorioService#convertToResponse}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeamentoBenchmarks {
+
+	private AvaliacaoRelatorioService avaliacaoRelatorioService;
+	private Relatorio relatorio;
+	private AvaliacaoRelatorio avaliacao;
+
+	@Setup
+	public void setUp() {
+		Usuario usuario = new Usuario();
+		usuario.setId(1);
+		usuario.setNome("Aluno");
+
+		Aluno aluno = new Aluno();
+		aluno.setId(1);
+		aluno.setUsuario(usuario);
+
+		relatorio = new Relatorio();
+		relatorio.setId(1);
+		relatorio.setAluno(aluno);
+		relatorio.setDataInicial(LocalDate.of(2025, 3, 1));
+		relatorio.setDataFinal(LocalDate.of(2025, 3, 31));
+		relatorio.setResumoAtividades("Estudo de programação e análise de dados");
+		relatorio.setComentarios("Sem observações");
+
+		avaliacao = new AvaliacaoRelatorio();
+		avaliacao.setId(1);
+		avaliacao.setRelatorio(relatorio);
+		avaliacao.setCargaHoraria(CriterioAvaliacao.BOM);
+		avaliacao.setInteresseAtividades(CriterioAvaliacao.OTIMO);
+		avaliacao.setHabilidadesDesenvolvidas(CriterioAvaliacao.REGULAR);
+		avaliacao.setOutrasInformacoes("Participou de todas as reuniões");
+
+		avaliacaoRelatorioService = new AvaliacaoRelatorioService();
+	}
+
+	@Benchmark
+	public RelatorioResponseDTO relatorioResponseDTO() {
+		return new RelatorioResponseDTO(relatorio);
+	}
+
+	@Benchmark
+	public AvaliacaoRelatorioResponse avaliacaoConvertToResponse() {
+		return avaliacaoRelatorioService.convertToResponse(avaliacao);
+	}
+}
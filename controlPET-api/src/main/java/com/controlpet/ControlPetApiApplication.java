@@ -4,10 +4,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaRepositories(basePackages = "com.controlpet.repository")
 @EntityScan(basePackages = "com.controlpet.model")
+@EnableScheduling
 public class ControlPetApiApplication {
     public static void main(String[] args) {
         SpringApplication.run(ControlPetApiApplication.class, args);
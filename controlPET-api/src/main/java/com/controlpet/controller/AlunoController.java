@@ -1,13 +1,22 @@
 package com.controlpet.controller;
 
 import com.controlpet.dto.AlunoDTO;
+import com.controlpet.dto.FiltroAlunoDTO;
+import com.controlpet.dto.PaginaCursor;
+import com.controlpet.dto.RelatorioResponseDTO;
+import com.controlpet.dto.VersaoDTO;
+import com.controlpet.infra.web.RespostaCondicional;
 import com.controlpet.model.Aluno;
 import com.controlpet.service.AlunoService;
+import com.controlpet.service.RelatorioService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,9 +24,11 @@ import java.util.List;
 public class AlunoController {
 
     private final AlunoService alunoService;
+    private final RelatorioService relatorioService;
 
-    public AlunoController(AlunoService alunoService) {
+    public AlunoController(AlunoService alunoService, RelatorioService relatorioService) {
         this.alunoService = alunoService;
+        this.relatorioService = relatorioService;
     }
 
     @PostMapping
@@ -27,15 +38,37 @@ public class AlunoController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Aluno>> listarAlunos() {
-        List<Aluno> alunos = alunoService.listarTodos();
-        return ResponseEntity.ok(alunos);
+    public ResponseEntity<PaginaCursor<Aluno>> listarAlunos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            WebRequest request) {
+        // Aluno não tem campos TEXT: a verificação usa a própria página, evitando só a serialização
+        return RespostaCondicional.pagina(request, () -> alunoService.listarPagina(cursor, tamanho), VersaoDTO::de);
     }
 
+    // Filtros opcionais: nome, curso, tipoEstudante, periodoAno e editalIngresso (ex.: ?curso=Computação&periodoAno=2025.1)
+    @GetMapping("/busca")
+    public ResponseEntity<PaginaCursor<Aluno>> buscarAlunos(
+            FiltroAlunoDTO filtro,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            WebRequest request) {
+        return RespostaCondicional.pagina(request, () -> alunoService.buscar(filtro, cursor, tamanho), VersaoDTO::de);
+    }
+
+    // O aluno vem do cache de segundo nível, então a verificação não precisa de uma consulta própria
     @GetMapping("/{id}")
-    public ResponseEntity<Aluno> buscarAlunoPorId(@PathVariable Integer id) {
-        Aluno aluno = alunoService.buscarPorId(id);
-        return ResponseEntity.ok(aluno);
+    public ResponseEntity<Aluno> buscarAlunoPorId(@PathVariable Integer id, WebRequest request) {
+        return RespostaCondicional.item(request, () -> alunoService.buscarPorId(id), VersaoDTO::de);
+    }
+
+    // Relatórios do aluno com data inicial entre from e to (ISO, ex.: 2025-03-01), ambos opcionais
+    @GetMapping("/{id}/relatorios")
+    public ResponseEntity<List<RelatorioResponseDTO>> listarRelatorios(
+            @PathVariable Integer id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(relatorioService.listarPorAluno(id, from, to));
     }
 
     @PutMapping("/{id}")
@@ -5,21 +5,25 @@ import com.controlpet.dto.LoginResponse;
 import com.controlpet.dto.RegisterRequestDTO;
 import com.controlpet.dto.UserInfoDTO;
 import com.controlpet.dto.ChangePasswordRequest;
+import com.controlpet.exception.ServicoSobrecarregadoException;
 import com.controlpet.model.Usuario;
 import com.controlpet.model.enums.TipoUsuario;
 import com.controlpet.repository.UsuarioRepository;
+import com.controlpet.infra.security.PasswordHashingService;
 import com.controlpet.infra.security.TokenService;
+import com.controlpet.infra.security.UsuarioPrincipalCache;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/auth")
@@ -32,30 +36,74 @@ public class AuthController {
     private UsuarioRepository repository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private UsuarioPrincipalCache principalCache;
+
+    // O BCrypt roda no PasswordHashingService: a thread da requisição é liberada enquanto o hash é calculado
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest body) {
-        Usuario user = this.repository.findByEmail(body.email())
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest body) {
+        // Email desconhecido responde como senha errada e depois do mesmo custo de BCrypt,
+        // para que nem a resposta nem o tempo dela revelem se o email está cadastrado
+        Optional<Usuario> encontrado = this.repository.findByEmail(body.email());
+        if (encontrado.isEmpty()) {
+            return passwordHashingService.matchesSemUsuario(body.senha())
+                    .thenApply(ignorado -> ResponseEntity.badRequest().<LoginResponse>build());
+        }
+        Usuario user = encontrado.get();
+
+        return passwordHashingService.matches(body.senha(), user.getSenhaHash()).thenApply(matches -> {
+            if (matches) {
+                rehashSeNecessario(user, body.senha());
+                String token = this.tokenService.generateToken(user);
+                return ResponseEntity.ok(new LoginResponse(user.getNome(),user.getTipo(), token));
+            }
+            return ResponseEntity.badRequest().<LoginResponse>build();
+        });
+    }
 
-        if (passwordEncoder.matches(body.senha(), user.getSenhaHash())) {
-            String token = this.tokenService.generateToken(user);
-            return ResponseEntity.ok(new LoginResponse(user.getNome(),user.getTipo(), token));
+    /**
+     * Refaz o hash da senha com a força atual do BCrypt quando o hash armazenado foi gerado com uma menor.
+     * Roda em segundo plano, sem atrasar a resposta do login; a gravação acontece na continuação do
+     * PasswordHashingService, fora do pool de hash. Se o pool estiver cheio, fica para o próximo login.
+     */
+    private void rehashSeNecessario(Usuario user, String senha) {
+        String hashAnterior = user.getSenhaHash();
+        if (!passwordHashingService.precisaRehash(hashAnterior)) {
+            return;
+        }
+        try {
+            passwordHashingService.encode(senha)
+                    .thenAccept(novoHash -> {
+                        if (repository.substituirSenhaHash(user.getId(), hashAnterior, novoHash) > 0) {
+                            principalCache.invalidate(user.getEmail());
+                            logger.info("Hash de senha do usuário {} refeito com a força atual do BCrypt", user.getId());
+                        }
+                    })
+                    .exceptionally(e -> {
+                        logger.warn("Falha ao refazer o hash de senha do usuário {}", user.getId(), e);
+                        return null;
+                    });
+        } catch (ServicoSobrecarregadoException e) {
+            logger.debug("Rehash de senha adiado: pool de hash cheio");
         }
-        return ResponseEntity.badRequest().build();
     }
 
     @PostMapping("/register")
-    public ResponseEntity<LoginResponse> register(@RequestBody RegisterRequestDTO body) {
+    public CompletableFuture<ResponseEntity<LoginResponse>> register(@RequestBody RegisterRequestDTO body) {
         Optional<Usuario> user = this.repository.findByEmail(body.email());
 
-        if (user.isEmpty()) {
+        if (user.isPresent()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        return passwordHashingService.encode(body.senha()).thenApply(senhaHash -> {
             Usuario newUser = new Usuario();
-            newUser.setSenhaHash(passwordEncoder.encode(body.senha()));
+            newUser.setSenhaHash(senhaHash);
             newUser.setEmail(body.email());
             newUser.setNome(body.nome());
             // É recomendado normalizar o tipo de entrada para maiúsculas antes de usar valueOf()
@@ -72,28 +120,16 @@ public class AuthController {
 
             String token = this.tokenService.generateToken(newUser);
             return ResponseEntity.ok(new LoginResponse(newUser.getNome(),newUser.getTipo(), token));
-        }
-        return ResponseEntity.badRequest().build();
+        });
     }
 
     @GetMapping("/me")
-    public ResponseEntity<UserInfoDTO> getMe(@RequestHeader("Authorization") String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            return ResponseEntity.status(401).build();
-        }
-
-        String token = authHeader.substring(7);
-        Usuario user = tokenService.getUserFromToken(token);
-
+    public ResponseEntity<UserInfoDTO> getMe(@AuthenticationPrincipal Usuario user) {
+        // O token já foi validado e o usuário carregado pelo SecurityFilter
         if (user == null) {
             return ResponseEntity.status(401).build();
         }
 
-        Optional<Usuario> dbUser = repository.findByEmail(user.getEmail());
-        if (dbUser.isPresent()) {
-            user = dbUser.get();
-        }
-
         UserInfoDTO userInfo = new UserInfoDTO(
                 user.getId(),
                 user.getNome(),
@@ -109,73 +145,62 @@ public class AuthController {
      * Requer o token JWT no cabeçalho Authorization e um corpo de requisição
      * com a senha atual e a nova senha.
      *
-     * @param authHeader O cabeçalho de autorização contendo o token Bearer.
-     * @param request    Objeto ChangePasswordRequest com currentPassword e newPassword.
+     * @param authenticatedUser O usuário autenticado pelo SecurityFilter.
+     * @param request           Objeto ChangePasswordRequest com currentPassword e newPassword.
      * @return ResponseEntity indicando sucesso (200 OK) ou falha (401 Unauthorized, 400 Bad Request).
      */
     @PutMapping("/change-password")
-    public ResponseEntity<Void> changePassword(
-            @RequestHeader("Authorization") String authHeader,
+    public CompletableFuture<ResponseEntity<Void>> changePassword(
+            @AuthenticationPrincipal Usuario authenticatedUser,
             @RequestBody ChangePasswordRequest request) {
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-
-        String token = authHeader.substring(7);
-        Usuario authenticatedUserFromToken = tokenService.getUserFromToken(token);
-
-        if (authenticatedUserFromToken == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        if (authenticatedUser == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
         }
 
-        Optional<Usuario> userOptional = repository.findByEmail(authenticatedUserFromToken.getEmail());
+        Optional<Usuario> userOptional = repository.findById(authenticatedUser.getId());
 
         if (userOptional.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
         }
 
         Usuario user = userOptional.get();
 
-        if (!passwordEncoder.matches(request.currentPassword(), user.getSenhaHash())) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        }
-
-        String newHashedPassword = passwordEncoder.encode(request.newPassword());
-        user.setSenhaHash(newHashedPassword);
+        return passwordHashingService.matches(request.currentPassword(), user.getSenhaHash())
+                .thenCompose(matches -> {
+                    if (!matches) {
+                        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).<Void>build());
+                    }
+                    return passwordHashingService.encode(request.newPassword()).thenApply(newHashedPassword -> {
+                        user.setSenhaHash(newHashedPassword);
 
-        repository.save(user);
+                        repository.save(user);
+                        principalCache.invalidate(user.getEmail());
 
-        return ResponseEntity.ok().build();
+                        return ResponseEntity.ok().<Void>build();
+                    });
+                });
     }
 
     /**
      * Endpoint para resetar a senha de um usuário específico para um valor padrão.
      * Apenas usuários com o tipo 'orientador' podem executar esta operação.
      *
-     * @param authHeader O cabeçalho de autorização contendo o token Bearer do usuário que solicita o reset.
+     * @param authenticatedUser O usuário autenticado pelo SecurityFilter que solicita o reset.
      * @param userId O ID do usuário cuja senha será resetada.
      * @return ResponseEntity indicando sucesso (200 OK), não autorizado (401 Unauthorized),
      * proibido (403 Forbidden) ou não encontrado (404 Not Found).
      */
     @PutMapping("/reset-password/{userId}")
-    public ResponseEntity<Void> resetPassword(
-            @RequestHeader("Authorization") String authHeader,
+    public CompletableFuture<ResponseEntity<Void>> resetPassword(
+            @AuthenticationPrincipal Usuario authenticatedUser,
             @PathVariable Integer userId) {
 
         logger.info("Tentativa de resetar senha para userId: {}", userId);
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            logger.warn("Requisição de reset de senha sem cabeçalho Authorization válido.");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-
-        String token = authHeader.substring(7);
-        Usuario authenticatedUser = tokenService.getUserFromToken(token);
-
         if (authenticatedUser == null) {
             logger.warn("Token inválido ou expirado. Usuário autenticado é nulo.");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
         } else {
             logger.info("Usuário autenticado: email='{}', tipo='{}'",
                     authenticatedUser.getEmail(), authenticatedUser.getTipo());
@@ -185,26 +210,28 @@ public class AuthController {
         if (authenticatedUser.getTipo() != TipoUsuario.orientador) {
             logger.warn("Usuário '{}' (Tipo: {}) tentou resetar senha, mas não é orientador.",
                     authenticatedUser.getEmail(), authenticatedUser.getTipo());
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
         }
 
         Optional<Usuario> targetUserOptional = repository.findById(userId);
 
         if (targetUserOptional.isEmpty()) {
             logger.warn("Tentativa de resetar senha para userId '{}', mas usuário não encontrado.", userId);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
         }
 
         Usuario targetUser = targetUserOptional.get();
         logger.info("Resetando senha para usuário alvo: email='{}'", targetUser.getEmail());
 
         String defaultPassword = "Senha123";
-        String newHashedPassword = passwordEncoder.encode(defaultPassword);
-        targetUser.setSenhaHash(newHashedPassword);
+        return passwordHashingService.encode(defaultPassword).thenApply(newHashedPassword -> {
+            targetUser.setSenhaHash(newHashedPassword);
 
-        repository.save(targetUser);
-        logger.info("Senha do usuário '{}' resetada com sucesso.", targetUser.getEmail());
+            repository.save(targetUser);
+            principalCache.invalidate(targetUser.getEmail());
+            logger.info("Senha do usuário '{}' resetada com sucesso.", targetUser.getEmail());
 
-        return ResponseEntity.ok().build();
+            return ResponseEntity.ok().<Void>build();
+        });
     }
 }
@@ -2,12 +2,19 @@ package com.controlpet.controller;
 
 import com.controlpet.dto.AvaliacaoRelatorioRequest;
 import com.controlpet.dto.AvaliacaoRelatorioResponse;
+import com.controlpet.dto.EstatisticaAvaliacaoDTO;
+import com.controlpet.dto.PaginaCursor;
+import com.controlpet.dto.ResultadoLoteDTO;
+import com.controlpet.dto.VerificacaoEstatisticasDTO;
+import com.controlpet.infra.web.RespostaCondicional;
 import com.controlpet.service.AvaliacaoRelatorioService;
+import com.controlpet.service.EstatisticasAvaliacaoService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -18,28 +25,59 @@ public class AvaliacaoRelatorioController {
     @Autowired
     private AvaliacaoRelatorioService avaliacaoRelatorioService;
 
+    @Autowired
+    private EstatisticasAvaliacaoService estatisticasAvaliacaoService;
+
     @PostMapping
     public ResponseEntity<AvaliacaoRelatorioResponse> criarAvaliacao(@Valid @RequestBody AvaliacaoRelatorioRequest request) {
         AvaliacaoRelatorioResponse response = avaliacaoRelatorioService.criarAvaliacao(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // Avaliação de vários relatórios de uma vez; o resultado traz o id ou o erro de cada item
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLoteDTO> criarAvaliacoesEmLote(@RequestBody List<AvaliacaoRelatorioRequest> requests) {
+        return ResponseEntity.ok(avaliacaoRelatorioService.criarAvaliacoesEmLote(requests));
+    }
+
     @GetMapping
-    public ResponseEntity<List<AvaliacaoRelatorioResponse>> buscarTodasAvaliacoes() {
-        List<AvaliacaoRelatorioResponse> avaliacoes = avaliacaoRelatorioService.buscarTodasAvaliacoes();
-        return ResponseEntity.ok(avaliacoes);
+    public ResponseEntity<PaginaCursor<AvaliacaoRelatorioResponse>> buscarTodasAvaliacoes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            WebRequest request) {
+        return RespostaCondicional.pagina(request,
+                () -> avaliacaoRelatorioService.buscarVersoes(cursor, tamanho),
+                () -> avaliacaoRelatorioService.buscarAvaliacoes(cursor, tamanho),
+                AvaliacaoRelatorioResponse::getVersao);
+    }
+
+    @GetMapping("/estatisticas")
+    public ResponseEntity<List<EstatisticaAvaliacaoDTO>> buscarEstatisticas(
+            @RequestParam Integer alunoId,
+            @RequestParam(required = false) String periodo) {
+        return ResponseEntity.ok(estatisticasAvaliacaoService.buscar(alunoId, periodo));
+    }
+
+    @PostMapping("/estatisticas/verificacao")
+    public ResponseEntity<VerificacaoEstatisticasDTO> verificarEstatisticas() {
+        return ResponseEntity.ok(estatisticasAvaliacaoService.verificar());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<AvaliacaoRelatorioResponse> buscarAvaliacaoPorId(@PathVariable Integer id) {
-        AvaliacaoRelatorioResponse avaliacao = avaliacaoRelatorioService.buscarAvaliacaoPorId(id);
-        return ResponseEntity.ok(avaliacao);
+    public ResponseEntity<AvaliacaoRelatorioResponse> buscarAvaliacaoPorId(@PathVariable Integer id, WebRequest request) {
+        return RespostaCondicional.item(request,
+                () -> avaliacaoRelatorioService.buscarVersaoPorId(id),
+                () -> avaliacaoRelatorioService.buscarAvaliacaoPorId(id),
+                AvaliacaoRelatorioResponse::getVersao);
     }
 
     @GetMapping("/relatorio/{relatorioId}")
-    public ResponseEntity<AvaliacaoRelatorioResponse> buscarAvaliacaoPorRelatorioId(@PathVariable Integer relatorioId) {
-        AvaliacaoRelatorioResponse avaliacao = avaliacaoRelatorioService.buscarAvaliacaoPorRelatorioId(relatorioId);
-        return ResponseEntity.ok(avaliacao);
+    public ResponseEntity<AvaliacaoRelatorioResponse> buscarAvaliacaoPorRelatorioId(@PathVariable Integer relatorioId,
+                                                                                     WebRequest request) {
+        return RespostaCondicional.item(request,
+                () -> avaliacaoRelatorioService.buscarVersaoPorRelatorioId(relatorioId),
+                () -> avaliacaoRelatorioService.buscarAvaliacaoPorRelatorioId(relatorioId),
+                AvaliacaoRelatorioResponse::getVersao);
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,39 @@
+package com.controlpet.controller;
+
+import com.controlpet.dto.TicketEventosDTO;
+import com.controlpet.infra.eventos.PublicadorEventos;
+import com.controlpet.infra.security.TicketsEventos;
+import com.controlpet.model.Usuario;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/eventos")
+public class EventoController {
+
+    private final PublicadorEventos publicadorEventos;
+    private final TicketsEventos ticketsEventos;
+
+    public EventoController(PublicadorEventos publicadorEventos, TicketsEventos ticketsEventos) {
+        this.publicadorEventos = publicadorEventos;
+        this.ticketsEventos = ticketsEventos;
+    }
+
+    // Stream SSE com os relatórios e avaliações que interessam ao usuário autenticado.
+    // Como o EventSource do navegador não envia cabeçalhos, a conexão também é aceita com ?ticket=
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter assinar(@AuthenticationPrincipal Usuario usuario) {
+        return publicadorEventos.assinar(usuario);
+    }
+
+    // Ticket de uso único e curta duração para abrir o stream sem colocar o JWT na URL
+    @PostMapping("/ticket")
+    public TicketEventosDTO emitirTicket(@AuthenticationPrincipal Usuario usuario) {
+        return new TicketEventosDTO(ticketsEventos.emitir(usuario.getEmail()), ticketsEventos.validade().toSeconds());
+    }
+}
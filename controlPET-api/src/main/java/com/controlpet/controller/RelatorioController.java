@@ -1,25 +1,39 @@
 package com.controlpet.controller;
 
+import com.controlpet.dto.PaginaCursor;
+import com.controlpet.dto.RelatorioBuscaDTO;
 import com.controlpet.dto.RelatorioDTO;
 import com.controlpet.dto.RelatorioResponseDTO;
+import com.controlpet.dto.ResultadoLoteDTO;
+import com.controlpet.infra.web.RespostaCondicional;
 import com.controlpet.model.Relatorio;
+import com.controlpet.service.RelatorioExportacaoService;
 import com.controlpet.service.RelatorioService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/relatorios")
 public class RelatorioController {
 
     private final RelatorioService relatorioService;
+    private final RelatorioExportacaoService relatorioExportacaoService;
 
-    public RelatorioController(RelatorioService relatorioService) {
+    public RelatorioController(RelatorioService relatorioService,
+                               RelatorioExportacaoService relatorioExportacaoService) {
         this.relatorioService = relatorioService;
+        this.relatorioExportacaoService = relatorioExportacaoService;
     }
 
     @PostMapping
@@ -28,20 +42,62 @@ public class RelatorioController {
         return new ResponseEntity<>(new RelatorioResponseDTO(relatorio), HttpStatus.CREATED);
     }
 
+    // Importação em massa: cada item é validado individualmente e o resultado informa o id gerado ou o erro
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLoteDTO> criarRelatoriosEmLote(@RequestBody List<RelatorioDTO> relatoriosDTO) {
+        ResultadoLoteDTO resultado = relatorioService.criarRelatoriosEmLote(relatoriosDTO);
+        return ResponseEntity.ok(resultado);
+    }
+
+    // Limpeza de fim de ciclo: exclui os relatórios informados e as avaliações deles
+    @PostMapping("/lote/exclusao")
+    public ResponseEntity<ResultadoLoteDTO> deletarRelatoriosEmLote(@RequestBody List<Integer> ids) {
+        return ResponseEntity.ok(relatorioService.deletarRelatoriosEmLote(ids));
+    }
+
     @GetMapping
-    public ResponseEntity<List<RelatorioResponseDTO>> listarRelatorios() {
-        List<Relatorio> relatorios = relatorioService.listarTodos();
-        List<RelatorioResponseDTO> response = relatorios.stream()
-            .map(RelatorioResponseDTO::new)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<PaginaCursor<RelatorioResponseDTO>> listarRelatorios(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            WebRequest request) {
+        return RespostaCondicional.pagina(request,
+            () -> relatorioService.listarVersoes(cursor, tamanho),
+            () -> relatorioService.listarPagina(cursor, tamanho),
+            RelatorioResponseDTO::getVersao);
+    }
+
+    // Busca por conteúdo (resumo de atividades e comentários), ordenada por relevância
+    @GetMapping("/busca")
+    public ResponseEntity<List<RelatorioBuscaDTO>> buscarRelatorios(
+            @RequestParam("q") String consulta,
+            @RequestParam(required = false) Integer limite) {
+        List<RelatorioBuscaDTO> resultados = relatorioService.buscarPorConteudo(consulta, limite);
+        return ResponseEntity.ok(resultados);
+    }
+
+    // Exporta todos os relatórios (opcionalmente filtrados por aluno e período de data inicial) em NDJSON ou CSV
+    @GetMapping("/exportacao")
+    public ResponseEntity<StreamingResponseBody> exportarRelatorios(
+            @RequestParam(defaultValue = "ndjson") RelatorioExportacaoService.Formato formato,
+            @RequestParam(required = false) Integer alunoId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        StreamingResponseBody corpo = saida -> relatorioExportacaoService.exportar(formato, alunoId, de, ate, saida);
+        MediaType tipoConteudo = formato == RelatorioExportacaoService.Formato.csv
+            ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+            : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok()
+            .contentType(tipoConteudo)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=relatorios." + formato)
+            .body(corpo);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<RelatorioResponseDTO> buscarRelatorioPorId(@PathVariable Integer id) {
-        Relatorio relatorio = relatorioService.buscarPorId(id);
-        RelatorioResponseDTO response = new RelatorioResponseDTO(relatorio);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<RelatorioResponseDTO> buscarRelatorioPorId(@PathVariable Integer id, WebRequest request) {
+        return RespostaCondicional.item(request,
+            () -> relatorioService.buscarVersao(id),
+            () -> relatorioService.buscarPorId(id),
+            RelatorioResponseDTO::getVersao);
     }
 
     @PutMapping("/{id}")
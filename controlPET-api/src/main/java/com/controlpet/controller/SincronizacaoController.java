@@ -0,0 +1,28 @@
+package com.controlpet.controller;
+
+import com.controlpet.dto.SincronizacaoDTO;
+import com.controlpet.service.SincronizacaoService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/sincronizacao")
+public class SincronizacaoController {
+
+    private final SincronizacaoService sincronizacaoService;
+
+    public SincronizacaoController(SincronizacaoService sincronizacaoService) {
+        this.sincronizacaoService = sincronizacaoService;
+    }
+
+    // Sem cursor, devolve tudo desde o início (em páginas); depois, só o que mudou desde o cursor
+    @GetMapping
+    public ResponseEntity<SincronizacaoDTO> buscarAlteracoes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        return ResponseEntity.ok(sincronizacaoService.buscarAlteracoes(cursor, tamanho));
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/usuarios")
 public class UsuarioController {
@@ -19,9 +21,9 @@ public class UsuarioController {
     }
 
     @PostMapping
-    public ResponseEntity<Usuario> criarUsuario(@Valid @RequestBody UsuarioDTO usuarioDTO) {
-        Usuario usuario = usuarioService.criarUsuario(usuarioDTO);
-        return new ResponseEntity<>(usuario, HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<Usuario>> criarUsuario(@Valid @RequestBody UsuarioDTO usuarioDTO) {
+        return usuarioService.criarUsuario(usuarioDTO)
+                .thenApply(usuario -> new ResponseEntity<>(usuario, HttpStatus.CREATED));
     }
     
     @GetMapping
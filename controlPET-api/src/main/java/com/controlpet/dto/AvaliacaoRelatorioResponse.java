@@ -1,12 +1,15 @@
 package com.controlpet.dto;
 
 import com.controlpet.model.enums.CriterioAvaliacao;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
 
 @Getter @Setter
+@NoArgsConstructor
 public class AvaliacaoRelatorioResponse {
     private Integer id;
     private Integer relatorioId; // Apenas o ID do relatório
@@ -17,4 +20,25 @@ public class AvaliacaoRelatorioResponse {
     private String outrasInformacoes;
     private LocalDateTime criadoEm;
     private LocalDateTime atualizadoEm;
+    // Usado só para os cabeçalhos ETag / Last-Modified; não faz parte do JSON
+    @JsonIgnore
+    private VersaoDTO versao;
+
+    // Usado pelas consultas de projeção do AvaliacaoRelatorioRepository
+    public AvaliacaoRelatorioResponse(Integer id, Integer relatorioId, String tipoRelatorio,
+                                      CriterioAvaliacao cargaHoraria, CriterioAvaliacao interesseAtividades,
+                                      CriterioAvaliacao habilidadesDesenvolvidas, String outrasInformacoes,
+                                      LocalDateTime criadoEm, LocalDateTime atualizadoEm,
+                                      Long versao, LocalDateTime relatorioAtualizadoEm) {
+        this.id = id;
+        this.relatorioId = relatorioId;
+        this.tipoRelatorio = tipoRelatorio;
+        this.cargaHoraria = cargaHoraria;
+        this.interesseAtividades = interesseAtividades;
+        this.habilidadesDesenvolvidas = habilidadesDesenvolvidas;
+        this.outrasInformacoes = outrasInformacoes;
+        this.criadoEm = criadoEm;
+        this.atualizadoEm = atualizadoEm;
+        this.versao = new VersaoDTO(id, versao, atualizadoEm, relatorioAtualizadoEm);
+    }
 }
\ No newline at end of file
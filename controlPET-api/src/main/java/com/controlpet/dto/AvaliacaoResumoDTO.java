@@ -0,0 +1,21 @@
+package com.controlpet.dto;
+
+import com.controlpet.model.enums.CriterioAvaliacao;
+
+import java.time.LocalDate;
+
+// Dados mínimos de uma avaliação para manter as estatísticas por aluno e período
+public record AvaliacaoResumoDTO(
+    Integer avaliacaoId,
+    Integer relatorioId,
+    Integer alunoId,
+    LocalDate dataInicialRelatorio,
+    CriterioAvaliacao cargaHoraria,
+    CriterioAvaliacao interesseAtividades,
+    CriterioAvaliacao habilidadesDesenvolvidas
+) {
+    public AvaliacaoResumoDTO comRelatorio(Integer alunoId, LocalDate dataInicialRelatorio) {
+        return new AvaliacaoResumoDTO(avaliacaoId, relatorioId, alunoId, dataInicialRelatorio,
+                cargaHoraria, interesseAtividades, habilidadesDesenvolvidas);
+    }
+}
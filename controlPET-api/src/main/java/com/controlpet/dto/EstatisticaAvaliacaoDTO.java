@@ -0,0 +1,15 @@
+package com.controlpet.dto;
+
+import com.controlpet.model.enums.CriterioAvaliacao;
+
+import java.util.Map;
+
+// Distribuição dos conceitos de avaliação de um aluno em um período (semestre da data inicial do relatório)
+public record EstatisticaAvaliacaoDTO(
+    Integer alunoId,
+    String periodo,
+    int totalAvaliacoes,
+    Map<CriterioAvaliacao, Integer> cargaHoraria,
+    Map<CriterioAvaliacao, Integer> interesseAtividades,
+    Map<CriterioAvaliacao, Integer> habilidadesDesenvolvidas
+) {}
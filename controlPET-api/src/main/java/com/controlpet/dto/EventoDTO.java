@@ -0,0 +1,16 @@
+package com.controlpet.dto;
+
+/**
+ * Notificação enviada pelo stream de eventos (/api/eventos). Traz só os identificadores;
+ * o cliente busca o recurso pelos endpoints de sempre (que respondem 304 se nada mudou).
+ *
+ * @param tipo "relatorio" ou "avaliacao"
+ * @param acao "criado" ou "atualizado"
+ */
+public record EventoDTO(
+    String tipo,
+    String acao,
+    Integer id,
+    Integer relatorioId,
+    Integer alunoId
+) {}
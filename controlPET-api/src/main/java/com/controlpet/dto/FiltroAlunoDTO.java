@@ -0,0 +1,16 @@
+package com.controlpet.dto;
+
+import com.controlpet.model.enums.TipoEstudante;
+
+/**
+ * Filtros da busca de alunos (/api/alunos/busca), todos opcionais e combinados com "e".
+ *
+ * @param nome trecho do nome do usuário, sem diferenciar maiúsculas
+ */
+public record FiltroAlunoDTO(
+    String nome,
+    String curso,
+    TipoEstudante tipoEstudante,
+    String periodoAno,
+    String editalIngresso
+) {}
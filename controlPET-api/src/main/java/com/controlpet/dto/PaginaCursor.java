@@ -0,0 +1,57 @@
+package com.controlpet.dto;
+
+import com.controlpet.exception.ValidacaoException;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de uma listagem paginada por cursor (keyset), ordenada por id crescente.
+ * O cliente repassa {@code proximoCursor} no parâmetro {@code cursor} da próxima
+ * requisição; quando ele vem nulo, não há mais itens.
+ */
+public record PaginaCursor<T>(
+    List<T> itens,
+    String proximoCursor
+) {
+    public static final int TAMANHO_PADRAO = 50;
+    public static final int TAMANHO_MAXIMO = 200;
+
+    public static int normalizarTamanho(Integer tamanho) {
+        if (tamanho == null) {
+            return TAMANHO_PADRAO;
+        }
+        if (tamanho < 1) {
+            throw new ValidacaoException("Tamanho da página deve ser maior que zero");
+        }
+        return Math.min(tamanho, TAMANHO_MAXIMO);
+    }
+
+    // Cursor ausente significa "a partir do início"
+    public static int decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(cursor);
+        } catch (NumberFormatException e) {
+            throw new ValidacaoException("Cursor inválido");
+        }
+    }
+
+    /**
+     * Monta a página a partir de uma consulta que buscou {@code tamanho + 1} linhas:
+     * a linha extra só indica que existe uma próxima página e não é devolvida.
+     */
+    public static <T> PaginaCursor<T> de(List<T> linhas, int tamanho, Function<T, Integer> id) {
+        if (linhas.size() <= tamanho) {
+            return new PaginaCursor<>(linhas, null);
+        }
+        List<T> itens = linhas.subList(0, tamanho);
+        return new PaginaCursor<>(itens, String.valueOf(id.apply(itens.get(tamanho - 1))));
+    }
+
+    public <R> PaginaCursor<R> map(Function<T, R> mapper) {
+        return new PaginaCursor<>(itens.stream().map(mapper).toList(), proximoCursor);
+    }
+}
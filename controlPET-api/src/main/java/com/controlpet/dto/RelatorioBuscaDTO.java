@@ -0,0 +1,7 @@
+package com.controlpet.dto;
+
+// Relatório encontrado na busca por conteúdo, com a relevância calculada pelo índice
+public record RelatorioBuscaDTO(
+    double pontuacao,
+    RelatorioResponseDTO relatorio
+) {}
@@ -1,8 +1,10 @@
 package com.controlpet.dto;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import com.controlpet.model.Relatorio;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 // src/main/java/com/controlpet/dto/RelatorioResponseDTO.java
 public class RelatorioResponseDTO {
@@ -14,6 +16,8 @@ public class RelatorioResponseDTO {
     private String comentarios;
     private Integer alunoId;
     private String alunoNome;
+    // Usado só para os cabeçalhos ETag / Last-Modified; não faz parte do JSON
+    private VersaoDTO versao;
 
     // Construtor que recebe a entidade Relatorio
     public RelatorioResponseDTO(Relatorio relatorio) {
@@ -27,6 +31,31 @@ public class RelatorioResponseDTO {
         this.alunoNome = relatorio.getAluno() != null && relatorio.getAluno().getUsuario() != null 
             ? relatorio.getAluno().getUsuario().getNome() 
             : null;
+        this.versao = new VersaoDTO(relatorio.getId(), relatorio.getVersao(), relatorio.getAtualizadoEm(),
+            relatorio.getAluno() != null && relatorio.getAluno().getUsuario() != null
+                ? relatorio.getAluno().getUsuario().getAtualizadoEm()
+                : null);
+    }
+
+    // Construtor usado pelas consultas de projeção do RelatorioRepository (um único SELECT com join)
+    public RelatorioResponseDTO(Integer id, String tipoRelatorio, LocalDate dataInicial, LocalDate dataFinal,
+                                String resumoAtividades, String comentarios, Integer alunoId, String alunoNome) {
+        this.id = id;
+        this.tipoRelatorio = tipoRelatorio;
+        this.dataInicial = dataInicial;
+        this.dataFinal = dataFinal;
+        this.resumoAtividades = resumoAtividades;
+        this.comentarios = comentarios;
+        this.alunoId = alunoId;
+        this.alunoNome = alunoNome;
+    }
+
+    // Construtor das consultas de projeção com as colunas de versão (ver RelatorioRepository.PROJECAO_RESPOSTA)
+    public RelatorioResponseDTO(Integer id, String tipoRelatorio, LocalDate dataInicial, LocalDate dataFinal,
+                                String resumoAtividades, String comentarios, Integer alunoId, String alunoNome,
+                                Long versao, LocalDateTime atualizadoEm, LocalDateTime usuarioAtualizadoEm) {
+        this(id, tipoRelatorio, dataInicial, dataFinal, resumoAtividades, comentarios, alunoId, alunoNome);
+        this.versao = new VersaoDTO(id, versao, atualizadoEm, usuarioAtualizadoEm);
     }
 
 	public Integer getId() {
@@ -93,5 +122,10 @@ public class RelatorioResponseDTO {
 		this.alunoNome = alunoNome;
 	}
 
+	@JsonIgnore
+	public VersaoDTO getVersao() {
+		return versao;
+	}
+
     
 }
\ No newline at end of file
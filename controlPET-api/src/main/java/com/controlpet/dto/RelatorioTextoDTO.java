@@ -0,0 +1,8 @@
+package com.controlpet.dto;
+
+// Apenas os campos de texto de um relatório, usados para montar o índice de busca
+public record RelatorioTextoDTO(
+    Integer id,
+    String resumoAtividades,
+    String comentarios
+) {}
@@ -0,0 +1,14 @@
+package com.controlpet.dto;
+
+import com.controlpet.model.enums.TipoRecurso;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+
+// Exclusão informada pela sincronização incremental; registroId só serve para a ordenação do cursor
+public record RemocaoDTO(
+    TipoRecurso tipo,
+    Integer id,
+    LocalDateTime removidoEm,
+    @JsonIgnore Long registroId
+) {}
@@ -0,0 +1,16 @@
+package com.controlpet.dto;
+
+// Resultado de um item do lote: o id gerado em caso de sucesso ou a mensagem de erro
+public record ResultadoItemLoteDTO(
+    int indice,
+    Integer id,
+    String erro
+) {
+    public static ResultadoItemLoteDTO sucesso(int indice, Integer id) {
+        return new ResultadoItemLoteDTO(indice, id, null);
+    }
+
+    public static ResultadoItemLoteDTO falha(int indice, String erro) {
+        return new ResultadoItemLoteDTO(indice, null, erro);
+    }
+}
@@ -0,0 +1,19 @@
+package com.controlpet.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de uma operação em lote. Cada item da requisição tem uma entrada em {@code itens},
+ * na mesma ordem; itens com erro não impedem que os demais sejam processados.
+ */
+public record ResultadoLoteDTO(
+    int total,
+    int sucessos,
+    int falhas,
+    List<ResultadoItemLoteDTO> itens
+) {
+    public static ResultadoLoteDTO de(List<ResultadoItemLoteDTO> itens) {
+        int falhas = (int) itens.stream().filter(item -> item.erro() != null).count();
+        return new ResultadoLoteDTO(itens.size(), itens.size() - falhas, falhas, itens);
+    }
+}
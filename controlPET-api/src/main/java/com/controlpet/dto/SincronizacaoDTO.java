@@ -0,0 +1,16 @@
+package com.controlpet.dto;
+
+import java.util.List;
+
+/**
+ * Alterações desde o cursor informado: relatórios e avaliações criados ou alterados e as exclusões.
+ * O cliente aplica as três listas na cópia local e repassa {@code proximoCursor} na próxima chamada;
+ * enquanto {@code completo} for falso ainda há alterações pendentes e a chamada pode ser repetida logo.
+ */
+public record SincronizacaoDTO(
+    List<RelatorioResponseDTO> relatorios,
+    List<AvaliacaoRelatorioResponse> avaliacoes,
+    List<RemocaoDTO> removidos,
+    String proximoCursor,
+    boolean completo
+) {}
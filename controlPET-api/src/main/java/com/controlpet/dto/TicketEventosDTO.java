@@ -0,0 +1,6 @@
+package com.controlpet.dto;
+
+public record TicketEventosDTO(
+        String ticket,
+        long validadeSegundos
+) { }
@@ -0,0 +1,16 @@
+package com.controlpet.dto;
+
+import java.util.List;
+
+// Resultado da conferência dos contadores em memória contra o banco
+public record VerificacaoEstatisticasDTO(
+    int gruposVerificados,
+    List<Divergencia> divergencias
+) {
+    public record Divergencia(
+        Integer alunoId,
+        String periodo,
+        EstatisticaAvaliacaoDTO esperado,
+        EstatisticaAvaliacaoDTO encontrado
+    ) {}
+}
@@ -0,0 +1,22 @@
+package com.controlpet.dto;
+
+import com.controlpet.model.Aluno;
+
+import java.time.LocalDateTime;
+
+/**
+ * O suficiente para validar o cache HTTP de um recurso sem carregar o seu conteúdo:
+ * id, versão e data de alteração do próprio registro e da entidade relacionada cujos dados
+ * também aparecem na resposta (ex.: o nome do usuário no relatório).
+ */
+public record VersaoDTO(
+    Integer id,
+    Long versao,
+    LocalDateTime atualizadoEm,
+    LocalDateTime atualizadoEmRelacionado
+) {
+    public static VersaoDTO de(Aluno aluno) {
+        return new VersaoDTO(aluno.getId(), aluno.getVersao(), aluno.getAtualizadoEm(),
+                aluno.getUsuario() != null ? aluno.getUsuario().getAtualizadoEm() : null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.controlpet.event;
+
+import com.controlpet.dto.AvaliacaoResumoDTO;
+
+// Publicado quando uma avaliação é excluída, diretamente ou junto com o seu relatório
+public record AvaliacaoRemovidaEvent(
+    AvaliacaoResumoDTO removida
+) {}
@@ -0,0 +1,9 @@
+package com.controlpet.event;
+
+import com.controlpet.dto.AvaliacaoResumoDTO;
+
+// Publicado quando uma avaliação é criada (anterior nulo) ou alterada
+public record AvaliacaoSalvaEvent(
+    AvaliacaoResumoDTO anterior,
+    AvaliacaoResumoDTO atual
+) {}
@@ -0,0 +1,6 @@
+package com.controlpet.event;
+
+// Publicado pelo RelatorioService quando um relatório é excluído
+public record RelatorioRemovidoEvent(
+    Integer relatorioId
+) {}
@@ -0,0 +1,10 @@
+package com.controlpet.event;
+
+// Publicado pelo RelatorioService quando um relatório é criado ou atualizado
+public record RelatorioSalvoEvent(
+    Integer relatorioId,
+    Integer alunoId,
+    String resumoAtividades,
+    String comentarios,
+    boolean novo
+) {}
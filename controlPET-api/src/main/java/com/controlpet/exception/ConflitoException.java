@@ -0,0 +1,12 @@
+package com.controlpet.exception;
+
+/**
+ * Lançada quando a operação colide com um dado já existente (ex.: email já cadastrado,
+ * relatório já avaliado). É convertida em 409 Conflict pelo {@link GlobalExceptionHandler}.
+ */
+public class ConflitoException extends DominioException {
+
+    public ConflitoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.controlpet.exception;
+
+/**
+ * Lançada quando o cursor de sincronização é mais antigo que a retenção dos registros de exclusão:
+ * o cliente precisa sincronizar do início. É convertida em 410 Gone pelo {@link GlobalExceptionHandler}.
+ */
+public class CursorExpiradoException extends DominioException {
+
+    public CursorExpiradoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.controlpet.exception;
+
+/**
+ * Base das exceções de resultados esperados do domínio (recurso inexistente, duplicado, entrada
+ * inválida, sobrecarga). Não capturam a pilha de chamadas: são lançadas com frequência, às vezes por
+ * clientes insistindo em ids inexistentes, e o {@link GlobalExceptionHandler} só usa a mensagem.
+ */
+public abstract class DominioException extends RuntimeException {
+
+    protected DominioException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,21 +1,126 @@
 package com.controlpet.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Converte as exceções em respostas {@link ProblemDetail} (application/problem+json) e conta cada
+ * erro na métrica api.erros, com o tipo da exceção e o status devolvido.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
-    @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<?> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
-        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ExceptionHandler(RecursoNaoEncontradoException.class)
+    public ResponseEntity<ProblemDetail> handleRecursoNaoEncontradoException(RecursoNaoEncontradoException ex, WebRequest request) {
+        return responder(ex, HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    // Referência lazy (getReferenceById) a uma entidade que não existe
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleEntityNotFoundException(EntityNotFoundException ex, WebRequest request) {
+        return responder(ex, HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(ConflitoException.class)
+    public ResponseEntity<ProblemDetail> handleConflitoException(ConflitoException ex, WebRequest request) {
+        return responder(ex, HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler({ValidacaoException.class, IllegalArgumentException.class})
+    public ResponseEntity<ProblemDetail> handleValidacaoException(RuntimeException ex, WebRequest request) {
+        return responder(ex, HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    // @Valid no corpo da requisição: a mensagem de cada campo inválido vai em "campos"
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<ProblemDetail> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex, WebRequest request) {
+        ResponseEntity<ProblemDetail> resposta = responder(ex, HttpStatus.BAD_REQUEST, "Requisição inválida");
+        Map<String, String> campos = ex.getBindingResult().getFieldErrors().stream()
+                .collect(Collectors.toMap(FieldError::getField,
+                        erro -> String.valueOf(erro.getDefaultMessage()),
+                        (primeira, outra) -> primeira));
+        resposta.getBody().setProperty("campos", campos);
+        return resposta;
+    }
+
+    // Parâmetro de rota ou de query que não converte para o tipo esperado (ex.: /api/relatorios/abc)
+    @ExceptionHandler(TypeMismatchException.class)
+    public ResponseEntity<ProblemDetail> handleTypeMismatchException(TypeMismatchException ex, WebRequest request) {
+        String parametro = ex instanceof MethodArgumentTypeMismatchException argumento ? argumento.getName() : ex.getPropertyName();
+        return responder(ex, HttpStatus.BAD_REQUEST, "Valor inválido para o parâmetro '" + parametro + "'");
+    }
+
+    // JSON malformado ou com valor incompatível com o campo (ex.: texto em um enum)
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ProblemDetail> handleHttpMessageNotReadableException(HttpMessageNotReadableException ex, WebRequest request) {
+        return responder(ex, HttpStatus.BAD_REQUEST, "Corpo da requisição inválido");
+    }
+
+    @ExceptionHandler(ServicoSobrecarregadoException.class)
+    public ResponseEntity<ProblemDetail> handleServicoSobrecarregadoException(ServicoSobrecarregadoException ex, WebRequest request) {
+        contar(ex, HttpStatus.TOO_MANY_REQUESTS);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()));
+    }
+
+    @ExceptionHandler(CursorExpiradoException.class)
+    public ResponseEntity<ProblemDetail> handleCursorExpiradoException(CursorExpiradoException ex, WebRequest request) {
+        return responder(ex, HttpStatus.GONE, ex.getMessage());
+    }
+
+    // O cliente fechou a conexão (ex.: stream de eventos): não há para quem responder
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleAsyncRequestNotUsableException(AsyncRequestNotUsableException ex) {
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<?> handleGlobalException(Exception ex, WebRequest request) {
-        return new ResponseEntity<>("Ocorreu um erro interno", HttpStatus.INTERNAL_SERVER_ERROR);
+    public ResponseEntity<ProblemDetail> handleGlobalException(Exception ex, WebRequest request) {
+        // Exceções do Spring MVC (rota inexistente, método não suportado, parâmetro ausente...) já trazem o status
+        if (ex instanceof ErrorResponse erro) {
+            contar(ex, erro.getStatusCode());
+            return ResponseEntity.status(erro.getStatusCode()).headers(erro.getHeaders()).body(erro.getBody());
+        }
+        logger.error("Erro não tratado em {}", request.getDescription(false), ex);
+        return responder(ex, HttpStatus.INTERNAL_SERVER_ERROR, "Ocorreu um erro interno");
+    }
+
+    private ResponseEntity<ProblemDetail> responder(Exception ex, HttpStatus status, String detalhe) {
+        contar(ex, status);
+        return ResponseEntity.status(status).body(ProblemDetail.forStatusAndDetail(status, detalhe));
+    }
+
+    private void contar(Exception ex, HttpStatusCode status) {
+        meterRegistry.counter("api.erros",
+                "tipo", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package com.controlpet.exception;
+
+/**
+ * Lançada quando o recurso pedido (ou referenciado na requisição) não existe.
+ * É convertida em 404 Not Found pelo {@link GlobalExceptionHandler}.
+ */
+public class RecursoNaoEncontradoException extends DominioException {
+
+    public RecursoNaoEncontradoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.controlpet.exception;
+
+/**
+ * Lançada quando um recurso limitado (ex.: o executor de hash de senhas) está com a fila cheia.
+ * É convertida em 429 Too Many Requests pelo {@link GlobalExceptionHandler}.
+ */
+public class ServicoSobrecarregadoException extends DominioException {
+
+    public ServicoSobrecarregadoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.controlpet.exception;
+
+/**
+ * Lançada quando um parâmetro da requisição é inválido (ex.: cursor malformado, período invertido).
+ * É convertida em 400 Bad Request pelo {@link GlobalExceptionHandler}.
+ */
+public class ValidacaoException extends DominioException {
+
+    public ValidacaoException(String message) {
+        super(message);
+    }
+}
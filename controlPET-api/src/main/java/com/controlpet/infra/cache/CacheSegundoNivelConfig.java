@@ -0,0 +1,62 @@
+package com.controlpet.infra.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Regiões do cache de segundo nível do Hibernate (JCache com o provedor do Caffeine).
+ * Cada região é limitada por tamanho e expira um tempo depois de gravada. Alterações feitas
+ * pela aplicação já atualizam ou invalidam as entradas; o TTL só limita por quanto tempo
+ * uma alteração feita diretamente no banco pode deixar de ser vista.
+ */
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    public static final String REGIAO_USUARIOS = "usuarios";
+    public static final String REGIAO_USUARIOS_EMAIL = "usuarios-email";
+    public static final String REGIAO_ALUNOS = "alunos";
+
+    private static final List<String> REGIOES = List.of(REGIAO_USUARIOS, REGIAO_USUARIOS_EMAIL, REGIAO_ALUNOS);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel(MeterRegistry meterRegistry,
+                                                 @Value("${api.cache.segundo-nivel.max-size:10000}") long maxSize,
+                                                 @Value("${api.cache.segundo-nivel.ttl:10m}") Duration ttl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Um gerenciador por contexto: o do URI padrão seria compartilhado por todos os contextos
+        // da mesma JVM (ex.: testes com bancos diferentes), misturando entidades de bancos distintos
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:controlpet:cache-segundo-nivel:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String regiao : REGIOES) {
+            CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+            configuracao.setMaximumSize(OptionalLong.of(maxSize));
+            configuracao.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            configuracao.setStatisticsEnabled(true);
+            Cache<Object, Object> cache = cacheManager.createCache(regiao, configuracao);
+            JCacheMetrics.monitor(meterRegistry, cache);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheManagerSegundoNivel) {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", cacheManagerSegundoNivel);
+    }
+}
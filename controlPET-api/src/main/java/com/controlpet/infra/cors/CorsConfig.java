@@ -12,6 +12,8 @@ public class CorsConfig implements WebMvcConfigurer {
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
                 .allowedOrigins("http://localhost:3000")
-                .allowedMethods("GET", "POST", "DELETE", "PUT");
+                .allowedMethods("GET", "POST", "DELETE", "PUT")
+                // Para o frontend poder repassar os validadores em If-None-Match / If-Modified-Since
+                .exposedHeaders("ETag", "Last-Modified");
     }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.controlpet.infra.datasource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Migração das tabelas que passaram de IDENTITY para sequence (relatórios, avaliações e registros de
+ * remoção). Em um banco que já tinha linhas, o ddl-auto=update cria a sequence começando em 1 e os
+ * próximos INSERTs colidiriam com os ids existentes; na inicialização, antes do primeiro INSERT, cada
+ * sequence que estiver atrás do maior id da tabela é reiniciada logo acima dele.
+ */
+@Component
+public class AjusteSequencias {
+
+    private static final Logger logger = LoggerFactory.getLogger(AjusteSequencias.class);
+
+    // allocationSize dos @SequenceGenerator: o otimizador pooled usa os ids (valor - incremento, valor]
+    static final int INCREMENTO = 50;
+
+    record Sequencia(String nome, String tabela) {}
+
+    static final List<Sequencia> SEQUENCIAS = List.of(
+            new Sequencia("relatorios_seq", "relatorios"),
+            new Sequencia("avaliacoes_relatorio_seq", "avaliacoes_relatorio"),
+            new Sequencia("registros_remocao_seq", "registros_remocao"));
+
+    private final SequenceSupport sequenceSupport;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Recebe o EntityManagerFactory para rodar depois que o Hibernate criou ou atualizou o schema
+    @Autowired
+    public AjusteSequencias(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this(entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                        .getJdbcServices().getDialect().getSequenceSupport(),
+                new JdbcTemplate(dataSource));
+    }
+
+    AjusteSequencias(SequenceSupport sequenceSupport, JdbcTemplate jdbcTemplate) {
+        this.sequenceSupport = sequenceSupport;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void ajustar() {
+        if (!sequenceSupport.supportsSequences()) {
+            // Sem sequences (ex.: MySQL) o Hibernate emula com uma tabela; ajuste manual: next_val = max(id) + 1
+            logger.warn("Banco sem suporte a sequences: confira se {} estão acima do maior id de cada tabela",
+                    SEQUENCIAS.stream().map(Sequencia::nome).toList());
+            return;
+        }
+        SEQUENCIAS.forEach(this::ajustar);
+    }
+
+    private void ajustar(Sequencia sequencia) {
+        Long maiorId = jdbcTemplate.queryForObject("select max(id) from " + sequencia.tabela(), Long.class);
+        if (maiorId == null) {
+            return;
+        }
+        // Consome um valor (um bloco de ids fica sem uso), o que é o custo de ler a sequence de forma portável
+        Long valor = jdbcTemplate.queryForObject(sequenceSupport.getSequenceNextValString(sequencia.nome()), Long.class);
+        if (valor != null && valor - INCREMENTO < maiorId) {
+            long reinicio = maiorId + INCREMENTO;
+            jdbcTemplate.execute("alter sequence " + sequencia.nome() + " restart with " + reinicio);
+            logger.warn("Sequence {} estava em {} com ids até {} em {}; reiniciada em {}",
+                    sequencia.nome(), valor, maiorId, sequencia.tabela(), reinicio);
+        }
+    }
+}
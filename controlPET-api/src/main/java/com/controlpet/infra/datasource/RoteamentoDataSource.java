@@ -0,0 +1,85 @@
+package com.controlpet.infra.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Direciona transações somente leitura ({@code @Transactional(readOnly = true)}) para a réplica e
+ * todo o resto para o primário. O Spring Data não abre transação nos métodos de consulta declarados
+ * nos repositórios, por isso cada repositório é anotado com {@code @Transactional(readOnly = true)}
+ * e os {@code @Modifying} com {@code @Transactional}; sem isso essas consultas iriam para o primário.
+ *
+ * A decisão é tomada quando a conexão é de fato obtida, por isso este DataSource precisa ficar
+ * atrás de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: só assim
+ * o flag de somente leitura da transação já está definido nesse momento.
+ *
+ * Leitura das próprias escritas: depois que uma requisição HTTP usa o primário em uma transação de
+ * escrita, as leituras seguintes da mesma requisição também vão para o primário, para não
+ * enxergar a réplica atrasada em relação ao que acabou de ser gravado.
+ *
+ * Leituras que precisam enxergar tudo o que já foi confirmado (ex.: recargas de estado em memória
+ * que só reaplicam os eventos recebidos depois de começarem) chamam {@link #lerDoPrimario()}.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    public enum Destino { PRIMARIO, REPLICA }
+
+    private static final String ATRIBUTO_FIXADO = RoteamentoDataSource.class.getName() + ".FIXADO_NO_PRIMARIO";
+    private static final Object LEITURA_NO_PRIMARIO = RoteamentoDataSource.class.getName() + ".LEITURA_NO_PRIMARIO";
+
+    public RoteamentoDataSource(DataSource primario, DataSource replica) {
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Destino determineCurrentLookupKey() {
+        boolean emTransacao = TransactionSynchronizationManager.isActualTransactionActive();
+        HttpServletRequest requisicao = requisicaoAtual();
+
+        if (emTransacao && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            boolean fixado = TransactionSynchronizationManager.hasResource(LEITURA_NO_PRIMARIO)
+                    || requisicao != null && requisicao.getAttribute(ATRIBUTO_FIXADO) != null;
+            return fixado ? Destino.PRIMARIO : Destino.REPLICA;
+        }
+        if (emTransacao && requisicao != null) {
+            requisicao.setAttribute(ATRIBUTO_FIXADO, Boolean.TRUE);
+        }
+        return Destino.PRIMARIO;
+    }
+
+    /**
+     * Faz a transação somente leitura atual ler do primário. Precisa ser chamado antes da primeira
+     * consulta da transação, que é quando a conexão é obtida. Sem transação ou com a réplica
+     * desligada não tem efeito.
+     */
+    public static void lerDoPrimario() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(LEITURA_NO_PRIMARIO)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(LEITURA_NO_PRIMARIO, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(LEITURA_NO_PRIMARIO);
+            }
+        });
+    }
+
+    // Usa a própria HttpServletRequest, e não RequestAttributes: em requisições assíncronas (ex.: login,
+    // com o BCrypt em outro pool) os RequestAttributes já foram encerrados quando a continuação grava
+    private static HttpServletRequest requisicaoAtual() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos
+                ? atributos.getRequest()
+                : null;
+    }
+}
@@ -0,0 +1,88 @@
+package com.controlpet.infra.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Separa leitura e escrita entre dois pools: o primário (spring.datasource.*) e a réplica
+ * (api.datasource.replica.*). Desligado por padrão; sem ele a aplicação usa um único DataSource.
+ *
+ * Os dois pools não são beans: o único DataSource do contexto é o proxy de roteamento, de modo
+ * que a contagem de SQL ({@code ContadorSqlDataSourcePostProcessor}) envolve só ele e cada
+ * comando é contado uma vez. As métricas de cada pool saem como hikaricp.* com pool=primario/replica.
+ *
+ * As propriedades spring.datasource.hikari.* valem para os dois pools, como no DataSource padrão do
+ * Spring Boot; a réplica só troca conexão, tamanho do pool e o modo somente leitura.
+ */
+@Configuration
+@ConditionalOnProperty(name = "api.datasource.replica.enabled")
+public class RoteamentoDataSourceConfig {
+
+    // HikariConfig não é um DataSource: ligar as propriedades nele não cria um segundo DataSource no contexto
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariConfig configuracaoPool() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties propriedadesPrimario,
+                                 HikariConfig configuracaoPool,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${api.datasource.replica.url}") String urlReplica,
+                                 @Value("${api.datasource.replica.username:${spring.datasource.username:}}") String usuarioReplica,
+                                 @Value("${api.datasource.replica.password:${spring.datasource.password:}}") String senhaReplica,
+                                 @Value("${api.datasource.replica.maximum-pool-size:10}") int tamanhoPoolReplica) {
+        HikariDataSource primario = new HikariDataSource();
+        configuracaoPool.copyStateTo(primario);
+        primario.setPoolName("primario");
+        primario.setJdbcUrl(propriedadesPrimario.determineUrl());
+        primario.setUsername(propriedadesPrimario.determineUsername());
+        primario.setPassword(propriedadesPrimario.determinePassword());
+        primario.setDriverClassName(propriedadesPrimario.determineDriverClassName());
+        primario.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        HikariDataSource replica = new HikariDataSource();
+        configuracaoPool.copyStateTo(replica);
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(urlReplica);
+        replica.setUsername(usuarioReplica);
+        replica.setPassword(senhaReplica);
+        replica.setMaximumPoolSize(tamanhoPoolReplica);
+        // Uma escrita que chegue à réplica por engano falha em vez de divergir do primário
+        replica.setReadOnly(true);
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        return new PoolsRoteados(new RoteamentoDataSource(primario, replica), primario, replica);
+    }
+
+    // Proxy preguiçoso que fecha os dois pools junto com o contexto
+    static class PoolsRoteados extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+        private final HikariDataSource primario;
+        private final HikariDataSource replica;
+
+        PoolsRoteados(RoteamentoDataSource roteamento, HikariDataSource primario, HikariDataSource replica) {
+            super(roteamento);
+            this.primario = primario;
+            this.replica = replica;
+        }
+
+        @Override
+        public void close() {
+            replica.close();
+            primario.close();
+        }
+    }
+}
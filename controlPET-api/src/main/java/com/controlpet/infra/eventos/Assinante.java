@@ -0,0 +1,102 @@
+package com.controlpet.infra.eventos;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Uma conexão do stream de eventos. As mensagens passam por uma fila limitada: quando ela enche
+ * (cliente lento), a mais antiga é descartada. O envio é feito por uma tarefa no executor, uma de
+ * cada vez por assinante, para que quem publica nunca espere pela rede.
+ */
+class Assinante {
+
+    // nome nulo = comentário (heartbeat)
+    record Mensagem(String nome, long id, String dados) {}
+
+    private final SseEmitter emitter;
+    private final Integer usuarioId;
+    private final Integer alunoId;
+    private final boolean orientador;
+    private final int capacidade;
+    private final Executor executor;
+    private final Runnable aoDescartar;
+    private final Runnable aoEncerrar;
+
+    private final Deque<Mensagem> fila = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean agendado = new AtomicBoolean();
+
+    Assinante(SseEmitter emitter, Integer usuarioId, Integer alunoId, boolean orientador, int capacidade,
+              Executor executor, Runnable aoDescartar, Runnable aoEncerrar) {
+        this.emitter = emitter;
+        this.usuarioId = usuarioId;
+        this.alunoId = alunoId;
+        this.orientador = orientador;
+        this.capacidade = capacidade;
+        this.executor = executor;
+        this.aoDescartar = aoDescartar;
+        this.aoEncerrar = aoEncerrar;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    Integer usuarioId() {
+        return usuarioId;
+    }
+
+    // Orientadores acompanham todos os alunos; um aluno só recebe o que é dele
+    boolean interessado(Integer alunoDoEvento) {
+        return orientador || (alunoId != null && alunoId.equals(alunoDoEvento));
+    }
+
+    void enfileirar(Mensagem mensagem) {
+        lock.lock();
+        try {
+            if (fila.size() == capacidade) {
+                fila.pollFirst();
+                aoDescartar.run();
+            }
+            fila.addLast(mensagem);
+        } finally {
+            lock.unlock();
+        }
+        if (agendado.compareAndSet(false, true)) {
+            executor.execute(this::drenar);
+        }
+    }
+
+    private void drenar() {
+        while (true) {
+            Mensagem mensagem;
+            lock.lock();
+            try {
+                mensagem = fila.pollFirst();
+                if (mensagem == null) {
+                    // Liberado com o lock: quem enfileirar depois daqui agenda uma nova tarefa
+                    agendado.set(false);
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            try {
+                emitter.send(mensagem.nome() == null
+                        ? SseEmitter.event().comment(mensagem.dados())
+                        : SseEmitter.event().name(mensagem.nome()).id(Long.toString(mensagem.id())).data(mensagem.dados()));
+            } catch (IOException | IllegalStateException e) {
+                // Conexão fechada pelo cliente (ou emitter já concluído)
+                aoEncerrar.run();
+                emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.controlpet.infra.eventos;
+
+import com.controlpet.dto.AvaliacaoResumoDTO;
+import com.controlpet.dto.EventoDTO;
+import com.controlpet.event.AvaliacaoSalvaEvent;
+import com.controlpet.event.RelatorioSalvoEvent;
+import com.controlpet.exception.ServicoSobrecarregadoException;
+import com.controlpet.model.Aluno;
+import com.controlpet.model.Usuario;
+import com.controlpet.model.enums.TipoUsuario;
+import com.controlpet.repository.AlunoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stream de eventos (SSE) de relatórios e avaliações criados ou alterados, enviado após o commit.
+ *
+ * Uma conexão ociosa não ocupa thread: o SseEmitter usa o modo assíncrono do Servlet, e o envio
+ * é feito por threads virtuais só enquanto há mensagens na fila do assinante. Cada evento é
+ * serializado uma única vez e entregue apenas aos assinantes interessados. Um heartbeat
+ * periódico mantém proxies abertos e descobre conexões que caíram.
+ */
+@Component
+public class PublicadorEventos {
+
+    private final AlunoRepository alunoRepository;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final int capacidadeFila;
+    private final int maxAssinantes;
+
+    private final Map<SseEmitter, Assinante> assinantes = new ConcurrentHashMap<>();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final ExecutorService envio = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("eventos-envio-", 0).factory());
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("eventos-heartbeat").daemon().factory());
+    private final Counter descartados;
+
+    public PublicadorEventos(AlunoRepository alunoRepository,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${api.eventos.timeout:30m}") Duration timeout,
+                             @Value("${api.eventos.heartbeat:25s}") Duration intervaloHeartbeat,
+                             @Value("${api.eventos.buffer:100}") int capacidadeFila,
+                             @Value("${api.eventos.max-assinantes:10000}") int maxAssinantes) {
+        this.alunoRepository = alunoRepository;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeout.toMillis();
+        this.capacidadeFila = capacidadeFila;
+        this.maxAssinantes = maxAssinantes;
+        this.descartados = Counter.builder("eventos.descartados")
+                .description("Eventos descartados porque a fila do assinante estava cheia")
+                .register(meterRegistry);
+        Gauge.builder("eventos.assinantes", assinantes, Map::size)
+                .description("Conexões abertas no stream de eventos")
+                .register(meterRegistry);
+        long intervalo = intervaloHeartbeat.toMillis();
+        heartbeat.scheduleAtFixedRate(this::enviarHeartbeat, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter assinar(Usuario usuario) {
+        if (assinantes.size() >= maxAssinantes) {
+            throw new ServicoSobrecarregadoException("Limite de conexões de eventos atingido, tente novamente");
+        }
+        boolean orientador = usuario.getTipo() == TipoUsuario.orientador;
+        Aluno aluno = orientador ? null : alunoRepository.findByUsuarioId(usuario.getId());
+
+        return registrar(new SseEmitter(timeoutMs), usuario.getId(), aluno != null ? aluno.getId() : null, orientador);
+    }
+
+    SseEmitter registrar(SseEmitter emitter, Integer usuarioId, Integer alunoId, boolean orientador) {
+        Assinante assinante = new Assinante(emitter, usuarioId, alunoId, orientador, capacidadeFila,
+                envio, descartados::increment, () -> assinantes.remove(emitter));
+        emitter.onCompletion(() -> assinantes.remove(emitter));
+        emitter.onTimeout(() -> assinantes.remove(emitter));
+        emitter.onError(erro -> assinantes.remove(emitter));
+        assinantes.put(emitter, assinante);
+        // Confirma a conexão de imediato (alguns proxies só repassam a resposta após o primeiro byte)
+        assinante.enfileirar(new Assinante.Mensagem(null, 0, "conectado"));
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onRelatorioSalvo(RelatorioSalvoEvent event) {
+        publicar("relatorio", new EventoDTO("relatorio", event.novo() ? "criado" : "atualizado",
+                event.relatorioId(), event.relatorioId(), event.alunoId()), event.alunoId(), null);
+    }
+
+    @TransactionalEventListener
+    public void onAvaliacaoSalva(AvaliacaoSalvaEvent event) {
+        AvaliacaoResumoDTO atual = event.atual();
+        // Quando o relatório muda de aluno, o aluno anterior também é avisado
+        Integer alunoAnterior = event.anterior() != null ? event.anterior().alunoId() : null;
+        publicar("avaliacao", new EventoDTO("avaliacao", event.anterior() == null ? "criado" : "atualizado",
+                atual.avaliacaoId(), atual.relatorioId(), atual.alunoId()), atual.alunoId(), alunoAnterior);
+    }
+
+    private void publicar(String nome, EventoDTO evento, Integer alunoId, Integer outroAlunoId) {
+        if (assinantes.isEmpty()) {
+            return;
+        }
+        Assinante.Mensagem mensagem = new Assinante.Mensagem(nome, sequencia.incrementAndGet(), json(evento));
+        for (Assinante assinante : assinantes.values()) {
+            if (assinante.interessado(alunoId)
+                    || (outroAlunoId != null && !Objects.equals(outroAlunoId, alunoId) && assinante.interessado(outroAlunoId))) {
+                assinante.enfileirar(mensagem);
+            }
+        }
+    }
+
+    private void enviarHeartbeat() {
+        Assinante.Mensagem ping = new Assinante.Mensagem(null, 0, "ping");
+        assinantes.values().forEach(assinante -> assinante.enfileirar(ping));
+    }
+
+    private String json(EventoDTO evento) {
+        try {
+            return objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        heartbeat.shutdownNow();
+        assinantes.keySet().forEach(SseEmitter::complete);
+        assinantes.clear();
+        envio.shutdown();
+    }
+}
@@ -0,0 +1,74 @@
+package com.controlpet.infra.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Quebra textos em português em termos de busca: minúsculas, sem acentos,
+ * sem stopwords e com os plurais mais comuns reduzidos ao singular.
+ */
+public final class AnalisadorTexto {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Stopwords já sem acento, pois são comparadas depois da remoção de acentos
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "ao", "aos", "as", "ate", "com", "como", "da", "das", "de", "do", "dos",
+            "e", "ela", "elas", "ele", "eles", "em", "entre", "era", "essa", "esse", "esta",
+            "este", "eu", "foi", "ha", "isso", "isto", "ja", "lhe", "mais", "mas", "me",
+            "mesmo", "muito", "na", "nas", "nao", "no", "nos", "num", "numa", "o", "os",
+            "ou", "para", "pela", "pelas", "pelo", "pelos", "por", "qual", "quando", "que",
+            "se", "sem", "ser", "seu", "seus", "so", "sua", "suas", "tambem", "te", "tem",
+            "um", "uma", "umas", "uns", "foram", "sao", "sobre", "ter", "voce");
+
+    private AnalisadorTexto() {
+    }
+
+    public static List<String> termos(String texto) {
+        List<String> termos = new ArrayList<>();
+        if (texto == null || texto.isBlank()) {
+            return termos;
+        }
+        String normalizado = MARCAS_DIACRITICAS
+                .matcher(Normalizer.normalize(texto.toLowerCase(Locale.ROOT), Normalizer.Form.NFD))
+                .replaceAll("");
+        for (String token : SEPARADORES.split(normalizado)) {
+            if (token.length() < 2 || STOPWORDS.contains(token)) {
+                continue;
+            }
+            termos.add(singular(token));
+        }
+        return termos;
+    }
+
+    // Redução de plural inspirada no primeiro passo do stemmer RSLP
+    static String singular(String termo) {
+        if (termo.length() <= 3 || !termo.endsWith("s")) {
+            return termo;
+        }
+        if (termo.endsWith("oes") || termo.endsWith("aes")) {
+            return termo.substring(0, termo.length() - 3) + "ao";
+        }
+        if (termo.endsWith("ais")) {
+            return termo.substring(0, termo.length() - 3) + "al";
+        }
+        if (termo.endsWith("eis")) {
+            return termo.substring(0, termo.length() - 3) + "el";
+        }
+        if (termo.endsWith("ns")) {
+            return termo.substring(0, termo.length() - 2) + "m";
+        }
+        if (termo.endsWith("res") || termo.endsWith("zes")) {
+            return termo.substring(0, termo.length() - 2);
+        }
+        if (termo.endsWith("ss") || termo.endsWith("us") || termo.endsWith("is")) {
+            return termo;
+        }
+        return termo.substring(0, termo.length() - 1);
+    }
+}
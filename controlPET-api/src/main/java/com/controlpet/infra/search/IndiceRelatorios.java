@@ -0,0 +1,243 @@
+package com.controlpet.infra.search;
+
+import com.controlpet.dto.RelatorioTextoDTO;
+import com.controlpet.event.RelatorioRemovidoEvent;
+import com.controlpet.event.RelatorioSalvoEvent;
+import com.controlpet.infra.datasource.RoteamentoDataSource;
+import com.controlpet.repository.RelatorioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido em memória sobre o resumo de atividades e os comentários dos relatórios.
+ * É reconstruído a partir do banco na inicialização e atualizado após cada commit
+ * de criação, alteração ou exclusão de relatório. A relevância é calculada com BM25.
+ *
+ * Durante a reconstrução as alterações continuam sendo aplicadas ao índice em uso e também
+ * ficam registradas; ao trocar o índice, elas são reaplicadas sobre o novo, que pode ter lido
+ * o banco antes delas.
+ */
+@Component
+public class IndiceRelatorios {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceRelatorios.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final RelatorioRepository relatorioRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock reconstrucao = new ReentrantLock();
+
+    // termo -> (relatorioId -> frequência do termo no relatório)
+    private Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+    // relatorioId -> termos do relatório (usado no cálculo de relevância e na remoção)
+    private Map<Integer, Documento> documentos = new HashMap<>();
+    private long totalTermos;
+    // relatorioId -> última alteração recebida durante a reconstrução (null fora dela)
+    private Map<Integer, Alteracao> pendentes;
+
+    public IndiceRelatorios(RelatorioRepository relatorioRepository) {
+        this.relatorioRepository = relatorioRepository;
+    }
+
+    public record Resultado(Integer relatorioId, double pontuacao) {}
+
+    private record Documento(int tamanho, Set<String> termos) {}
+
+    private record Alteracao(String resumoAtividades, String comentarios, boolean removido) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reconstruir() {
+        reconstrucao.lock();
+        try {
+            reconstruirIndice();
+        } finally {
+            reconstrucao.unlock();
+        }
+    }
+
+    private void reconstruirIndice() {
+        Map<String, Map<Integer, Integer>> novosPostings = new HashMap<>();
+        Map<Integer, Documento> novosDocumentos = new HashMap<>();
+        long[] novoTotal = {0};
+
+        // Começa a registrar antes de ler o banco: o que for confirmado depois daqui é reaplicado na troca
+        lock.writeLock().lock();
+        try {
+            pendentes = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Só o que for confirmado depois do registro acima é reaplicado: a leitura precisa incluir todo o
+        // resto, o que uma réplica atrasada não garante
+        RoteamentoDataSource.lerDoPrimario();
+        try (Stream<RelatorioTextoDTO> textos = relatorioRepository.streamTextos()) {
+            textos.forEach(texto -> novoTotal[0] += adicionar(novosPostings, novosDocumentos,
+                    texto.id(), texto.resumoAtividades(), texto.comentarios()));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendentes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            int reaplicadas = pendentes.size();
+            for (var pendente : pendentes.entrySet()) {
+                Integer relatorioId = pendente.getKey();
+                Alteracao alteracao = pendente.getValue();
+                novoTotal[0] -= removerDocumento(novosPostings, novosDocumentos, relatorioId);
+                if (!alteracao.removido()) {
+                    novoTotal[0] += adicionar(novosPostings, novosDocumentos,
+                            relatorioId, alteracao.resumoAtividades(), alteracao.comentarios());
+                }
+            }
+            pendentes = null;
+            postings = novosPostings;
+            documentos = novosDocumentos;
+            totalTermos = novoTotal[0];
+            logger.debug("{} alterações recebidas durante a reconstrução foram reaplicadas", reaplicadas);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de busca de relatórios reconstruído: {} relatórios, {} termos distintos",
+                novosDocumentos.size(), novosPostings.size());
+    }
+
+    @TransactionalEventListener
+    public void onRelatorioSalvo(RelatorioSalvoEvent event) {
+        indexar(event.relatorioId(), event.resumoAtividades(), event.comentarios());
+    }
+
+    @TransactionalEventListener
+    public void onRelatorioRemovido(RelatorioRemovidoEvent event) {
+        remover(event.relatorioId());
+    }
+
+    public void indexar(Integer relatorioId, String resumoAtividades, String comentarios) {
+        lock.writeLock().lock();
+        try {
+            totalTermos -= removerDocumento(postings, documentos, relatorioId);
+            totalTermos += adicionar(postings, documentos, relatorioId, resumoAtividades, comentarios);
+            if (pendentes != null) {
+                pendentes.put(relatorioId, new Alteracao(resumoAtividades, comentarios, false));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(Integer relatorioId) {
+        lock.writeLock().lock();
+        try {
+            totalTermos -= removerDocumento(postings, documentos, relatorioId);
+            if (pendentes != null) {
+                pendentes.put(relatorioId, new Alteracao(null, null, true));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca os relatórios que contêm ao menos um dos termos da consulta,
+     * ordenados do mais para o menos relevante.
+     */
+    public List<Resultado> buscar(String consulta, int limite) {
+        List<String> termos = AnalisadorTexto.termos(consulta).stream().distinct().toList();
+        if (termos.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int totalDocumentos = documentos.size();
+            if (totalDocumentos == 0) {
+                return List.of();
+            }
+            double tamanhoMedio = (double) totalTermos / totalDocumentos;
+            Map<Integer, Double> pontuacoes = new HashMap<>();
+
+            for (String termo : termos) {
+                Map<Integer, Integer> ocorrencias = postings.get(termo);
+                if (ocorrencias == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (totalDocumentos - ocorrencias.size() + 0.5) / (ocorrencias.size() + 0.5));
+                ocorrencias.forEach((relatorioId, frequencia) -> {
+                    double normalizacao = K1 * (1 - B + B * documentos.get(relatorioId).tamanho() / tamanhoMedio);
+                    double pontuacao = idf * frequencia * (K1 + 1) / (frequencia + normalizacao);
+                    pontuacoes.merge(relatorioId, pontuacao, Double::sum);
+                });
+            }
+
+            return pontuacoes.entrySet().stream()
+                    .map(entrada -> new Resultado(entrada.getKey(), entrada.getValue()))
+                    .sorted(Comparator.comparingDouble(Resultado::pontuacao).reversed()
+                            .thenComparing(Resultado::relatorioId))
+                    .limit(limite)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Retorna a quantidade de termos adicionados
+    private static int adicionar(Map<String, Map<Integer, Integer>> postings, Map<Integer, Documento> documentos,
+                                 Integer relatorioId, String resumoAtividades, String comentarios) {
+        List<String> termos = new ArrayList<>(AnalisadorTexto.termos(resumoAtividades));
+        termos.addAll(AnalisadorTexto.termos(comentarios));
+        if (termos.isEmpty()) {
+            return 0;
+        }
+        for (String termo : termos) {
+            postings.computeIfAbsent(termo, t -> new HashMap<>()).merge(relatorioId, 1, Integer::sum);
+        }
+        documentos.put(relatorioId, new Documento(termos.size(), new HashSet<>(termos)));
+        return termos.size();
+    }
+
+    // Sobre o índice em uso, deve ser chamado com o lock de escrita; retorna a quantidade de termos removidos
+    private static int removerDocumento(Map<String, Map<Integer, Integer>> postings, Map<Integer, Documento> documentos,
+                                        Integer relatorioId) {
+        Documento documento = documentos.remove(relatorioId);
+        if (documento == null) {
+            return 0;
+        }
+        for (String termo : documento.termos()) {
+            Map<Integer, Integer> ocorrencias = postings.get(termo);
+            if (ocorrencias != null) {
+                ocorrencias.remove(relatorioId);
+                if (ocorrencias.isEmpty()) {
+                    postings.remove(termo);
+                }
+            }
+        }
+        return documento.tamanho();
+    }
+}
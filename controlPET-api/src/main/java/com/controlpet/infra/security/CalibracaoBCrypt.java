@@ -0,0 +1,67 @@
+package com.controlpet.infra.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Component;
+
+/**
+ * Define a força (log2 das rodadas) do BCrypt na inicialização, medindo o tempo de hash nesta
+ * máquina e escolhendo a maior força cujo tempo estimado não passa do alvo configurado.
+ * Cada ponto de força dobra o custo, então basta medir a força mínima e extrapolar.
+ *
+ * Com várias instâncias em máquinas diferentes, fixe {@code api.security.bcrypt.strength}
+ * para que todas usem a mesma força: os hashes só são refeitos para uma força maior, então os
+ * usuários que logarem na instância mais rápida passariam a pagar o custo dela nas demais.
+ */
+@Component
+public class CalibracaoBCrypt {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalibracaoBCrypt.class);
+
+    private final int forca;
+
+    public CalibracaoBCrypt(@Value("${api.security.bcrypt.strength:0}") int forcaFixa,
+                            @Value("${api.security.bcrypt.target-ms:250}") long alvoMs,
+                            @Value("${api.security.bcrypt.min-strength:10}") int forcaMinima,
+                            @Value("${api.security.bcrypt.max-strength:14}") int forcaMaxima) {
+        if (forcaFixa > 0) {
+            this.forca = forcaFixa;
+            logger.info("BCrypt com força fixa {}", forca);
+            return;
+        }
+        double msNaMinima = medirMs(forcaMinima);
+        this.forca = escolherForca(msNaMinima, alvoMs, forcaMinima, forcaMaxima);
+        logger.info("BCrypt calibrado: força {} (~{} ms por hash; {} ms na força {}, alvo {} ms)",
+                forca, Math.round(msNaMinima * Math.pow(2, forca - forcaMinima)),
+                Math.round(msNaMinima), forcaMinima, alvoMs);
+    }
+
+    public int forca() {
+        return forca;
+    }
+
+    static int escolherForca(double msNaMinima, long alvoMs, int forcaMinima, int forcaMaxima) {
+        int escolhida = forcaMinima;
+        double estimado = msNaMinima;
+        while (escolhida < forcaMaxima && estimado * 2 <= alvoMs) {
+            escolhida++;
+            estimado *= 2;
+        }
+        return escolhida;
+    }
+
+    // Menor de algumas medições, depois de uma execução de aquecimento do JIT
+    private static double medirMs(int forca) {
+        String sal = BCrypt.gensalt(forca);
+        BCrypt.hashpw("calibracao", sal);
+        long melhor = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long inicio = System.nanoTime();
+            BCrypt.hashpw("calibracao", sal);
+            melhor = Math.min(melhor, System.nanoTime() - inicio);
+        }
+        return melhor / 1e6;
+    }
+}
@@ -0,0 +1,137 @@
+package com.controlpet.infra.security;
+
+import com.controlpet.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Executa o hash e a verificação de senhas (BCrypt) em um pool próprio, dimensionado pela
+ * quantidade de núcleos e com fila limitada. Assim um pico de logins não ocupa as threads
+ * do Tomcat e não atrasa os demais endpoints; com a fila cheia a chamada falha na hora com
+ * {@link ServicoSobrecarregadoException} (429).
+ *
+ * Só o BCrypt roda nesse pool: os futures devolvidos completam em uma thread virtual à parte,
+ * então o que for encadeado depois (gravar no banco, gerar o token) não ocupa threads de hash.
+ * Essas continuações recebem os atributos da requisição que pediu o hash, para que o roteamento
+ * de DataSource saiba a qual requisição a escrita pertence.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    // Hash de uma senha aleatória, com a força atual, para verificar logins de emails inexistentes
+    private final String hashFicticio;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService continuacoes = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("senha-hash-continuacao-", 0).factory());
+    private final Timer tempoEspera;
+    private final Timer tempoEncode;
+    private final Timer tempoMatches;
+    private final Counter rejeicoes;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${api.security.password-hashing.threads:0}") int threads,
+                                  @Value("${api.security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.hashFicticio = passwordEncoder.encode(UUID.randomUUID().toString());
+        // 0 (padrão) usa um thread por núcleo: BCrypt só consome CPU, mais threads não aumentam a vazão
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(tamanho, tamanho, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("senha-hash-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("senha.hash.fila", executor, e -> e.getQueue().size())
+                .description("Operações de hash de senha aguardando na fila")
+                .register(meterRegistry);
+        Gauge.builder("senha.hash.ativas", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operações de hash de senha em execução")
+                .register(meterRegistry);
+        this.tempoEspera = Timer.builder("senha.hash.espera")
+                .description("Tempo na fila antes do hash de senha começar")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.tempoEncode = Timer.builder("senha.hash.duracao")
+                .tag("operacao", "encode")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.tempoMatches = Timer.builder("senha.hash.duracao")
+                .tag("operacao", "matches")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejeicoes = Counter.builder("senha.hash.rejeitadas")
+                .description("Operações recusadas por fila cheia (respondidas com 429)")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<String> encode(String senha) {
+        return submeter(tempoEncode, () -> passwordEncoder.encode(senha));
+    }
+
+    public CompletableFuture<Boolean> matches(String senha, String hash) {
+        return submeter(tempoMatches, () -> passwordEncoder.matches(senha, hash));
+    }
+
+    /**
+     * Verificação com o mesmo custo de {@link #matches} para um login cujo email não existe,
+     * para que o tempo de resposta não revele quais emails estão cadastrados. Sempre resulta em false.
+     */
+    public CompletableFuture<Boolean> matchesSemUsuario(String senha) {
+        return submeter(tempoMatches, () -> {
+            passwordEncoder.matches(senha, hashFicticio);
+            return false;
+        });
+    }
+
+    // Hashes gerados com força menor que a atual são refeitos no login; nunca se reduz a força de um hash
+    public boolean precisaRehash(String hash) {
+        return passwordEncoder.upgradeEncoding(hash);
+    }
+
+    private <T> CompletableFuture<T> submeter(Timer tempoOperacao, Supplier<T> operacao) {
+        long enfileirado = System.nanoTime();
+        RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                tempoEspera.record(System.nanoTime() - enfileirado, TimeUnit.NANOSECONDS);
+                return tempoOperacao.record(operacao);
+            }, executor).whenCompleteAsync((resultado, erro) -> { }, tarefa -> continuacoes.execute(() -> {
+                // whenCompleteAsync (e não thenApplyAsync) para sair do pool também quando o hash falha
+                RequestContextHolder.setRequestAttributes(requisicao);
+                try {
+                    tarefa.run();
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            rejeicoes.increment();
+            throw new ServicoSobrecarregadoException("Muitas requisições de autenticação simultâneas, tente novamente em instantes");
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+        continuacoes.shutdown();
+    }
+}
@@ -3,7 +3,6 @@ package com.controlpet.infra.security;
 
 
 import com.controlpet.model.Usuario;
-import com.controlpet.repository.UsuarioRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,15 +22,19 @@ public class SecurityFilter extends OncePerRequestFilter {
     @Autowired
     TokenService tokenService;
     @Autowired
-    UsuarioRepository userRepository;
+    UsuarioPrincipalCache principalCache;
+    @Autowired
+    TicketsEventos ticketsEventos;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        var token = this.recoverToken(request);
-        var login = tokenService.validateToken(token);
+        var login = this.recoverLogin(request);
 
         if(login != null){
-            Usuario user = userRepository.findByEmail(login).orElseThrow(() -> new RuntimeException("User Not Found"));
+            // O usuário autenticado fica no SecurityContext; os controllers o recebem
+            // via @AuthenticationPrincipal em vez de decodificar o cabeçalho novamente. A busca passa
+            // pelo UsuarioPrincipalCache e só nas faltas chega ao cache de segundo nível.
+            Usuario user = principalCache.findByEmail(login).orElseThrow(() -> new RuntimeException("User Not Found"));
             var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
             var authentication = new UsernamePasswordAuthenticationToken(user, null, authorities);
             SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -39,9 +42,14 @@ public class SecurityFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private String recoverToken(HttpServletRequest request){
+    private String recoverLogin(HttpServletRequest request){
         var authHeader = request.getHeader("Authorization");
+        // O EventSource do navegador não permite cabeçalhos: no stream de eventos vale um ticket
+        // de uso único (POST /api/eventos/ticket) na URL. O JWT nunca é aceito na query string.
+        if(authHeader == null && "/api/eventos".equals(request.getRequestURI())) {
+            return ticketsEventos.consumir(request.getParameter("ticket"));
+        }
         if(authHeader == null) return null;
-        return authHeader.replace("Bearer ", "");
+        return tokenService.validateToken(authHeader.replace("Bearer ", ""));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.controlpet.infra.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Tickets de acesso ao stream de eventos. O EventSource do navegador não envia cabeçalhos, então a
+ * conexão em /api/eventos é autenticada por um ticket na URL em vez do JWT: o ticket vale poucos
+ * segundos, é de uso único e não serve para nenhum outro endpoint, de modo que vazar a URL em logs
+ * de proxy ou no histórico do navegador não expõe a sessão.
+ */
+@Component
+public class TicketsEventos {
+
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<String, String> tickets;
+    private final Duration validade;
+
+    public TicketsEventos(@Value("${api.eventos.ticket.validade:30s}") Duration validade,
+                          @Value("${api.eventos.ticket.max-size:10000}") long maxSize) {
+        this.validade = validade;
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(validade)
+                .build();
+    }
+
+    public String emitir(String email) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, email);
+        return ticket;
+    }
+
+    // Remove o ticket ao usá-lo: uma segunda conexão com o mesmo ticket não é autenticada
+    public String consumir(String ticket) {
+        if (ticket == null || ticket.isBlank()) {
+            return null;
+        }
+        return tickets.asMap().remove(ticket);
+    }
+
+    public Duration validade() {
+        return validade;
+    }
+}
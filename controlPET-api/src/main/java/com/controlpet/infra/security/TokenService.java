@@ -1,29 +1,51 @@
 package com.controlpet.infra.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.controlpet.model.Usuario;
 import com.controlpet.model.enums.TipoUsuario; // Importe o enum TipoUsuario
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 
 @Service
 public class TokenService {
-    @Value("${api.security.token.secret}")
-    private String secret;
+    private static final String ISSUER = "login-auth-api";
+
+    // Algoritmo e verificador são imutáveis e thread-safe: criados uma única vez
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+
+    // Tokens já verificados, removidos automaticamente quando o 'exp' do token passa
+    private final Cache<String, DecodedJWT> verifiedTokens;
+
+    public TokenService(@Value("${api.security.token.secret}") String secret,
+                        @Value("${api.security.token.cache.max-size:10000}") long cacheMaxSize) {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
 
     public String generateToken(Usuario user){
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-
             String token = JWT.create()
-                    .withIssuer("login-auth-api")
+                    .withIssuer(ISSUER)
                     .withSubject(user.getEmail())
                     .withClaim("id", user.getId())
                     .withClaim("nome", user.getNome())
@@ -38,30 +60,17 @@ public class TokenService {
     }
 
     public String validateToken(String token){
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("login-auth-api")
-                    .build()
-                    .verify(token)
-                    .getSubject();
-        } catch (JWTVerificationException exception) {
-            return null;
-        }
+        DecodedJWT decoded = verify(token);
+        return decoded != null ? decoded.getSubject() : null;
     }
 
     // Método para extrair informações do token, incluindo o tipo de usuário
     public Usuario getUserFromToken(String token) {
-        if (token == null || token.isEmpty()) {
+        DecodedJWT decoded = verify(token);
+        if (decoded == null) {
             return null;
         }
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            var decoded = JWT.require(algorithm)
-                    .withIssuer("login-auth-api")
-                    .build()
-                    .verify(token);
-
             Usuario user = new Usuario();
             user.setId(decoded.getClaim("id").asInt()); // CORREÇÃO AQUI: Alterado para asInt()
             user.setEmail(decoded.getSubject());
@@ -73,13 +82,31 @@ public class TokenService {
             }
 
             return user;
-        } catch (JWTVerificationException exception) {
-            // Log do erro pode ser útil para depuração
-            // logger.error("Erro ao validar token ou ao extrair claims: {}", exception.getMessage());
-            return null;
         } catch (IllegalArgumentException e) {
             // Captura erro se o valor do 'tipo' no token não corresponder a um enum válido
-            // logger.error("Valor do tipo de usuário no token inválido: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Verifica a assinatura e as claims do token, reaproveitando o resultado de
+     * verificações anteriores enquanto o token não expirar.
+     *
+     * @return o token decodificado, ou null se o token for ausente ou inválido.
+     */
+    private DecodedJWT verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        DecodedJWT cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            DecodedJWT decoded = verifier.verify(token);
+            verifiedTokens.put(token, decoded);
+            return decoded;
+        } catch (JWTVerificationException exception) {
             return null;
         }
     }
@@ -87,4 +114,26 @@ public class TokenService {
     private Instant generateExpirationDate(){
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
+
+    // Mantém cada entrada no cache apenas até o instante de expiração do próprio token
+    private static class TokenExpiry implements Expiry<String, DecodedJWT> {
+        @Override
+        public long expireAfterCreate(String token, DecodedJWT decoded, long currentTime) {
+            Instant expiresAt = decoded.getExpiresAtAsInstant();
+            if (expiresAt == null) {
+                return 0;
+            }
+            return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, DecodedJWT decoded, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, decoded, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, DecodedJWT decoded, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
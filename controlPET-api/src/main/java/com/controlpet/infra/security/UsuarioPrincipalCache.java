@@ -0,0 +1,68 @@
+package com.controlpet.infra.security;
+
+import com.controlpet.model.Usuario;
+import com.controlpet.repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache em memória dos usuários autenticados, indexado por email, na frente do cache de segundo nível.
+ *
+ * O natural id (email) no cache de segundo nível já evita o SQL, mas cada busca por ele ainda abre
+ * uma sessão do Hibernate e uma transação somente leitura, e esta empresta uma conexão do pool.
+ * Este cache fica no caminho de toda requisição autenticada para que o SecurityFilter não toque na
+ * camada de persistência; nas faltas ele passa por {@link UsuarioRepository#findByEmail}, que usa o
+ * segundo nível. O login e as demais buscas por email usam o segundo nível diretamente.
+ *
+ * O segundo nível se invalida sozinho nas escritas do Hibernate; este cache não. Qualquer alteração
+ * em um usuário (ex.: troca de senha) deve chamar {@link #invalidate(String)}.
+ */
+@Component
+public class UsuarioPrincipalCache {
+
+    private final UsuarioRepository usuarioRepository;
+    private final Cache<String, Usuario> usuarios;
+
+    public UsuarioPrincipalCache(UsuarioRepository usuarioRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${api.security.principal-cache.max-size:10000}") long maxSize,
+                                 @Value("${api.security.principal-cache.ttl:5m}") Duration ttl) {
+        this.usuarioRepository = usuarioRepository;
+        this.usuarios = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usuarios, "usuario.principal");
+    }
+
+    public Optional<Usuario> findByEmail(String email) {
+        Usuario usuario = usuarios.getIfPresent(email);
+        if (usuario != null) {
+            return Optional.of(usuario);
+        }
+        // A consulta é feita fora do cache de propósito: usuarios.get(email, loader) executa o loader
+        // dentro de um bloco synchronized do ConcurrentHashMap, o que prende a thread virtual à
+        // thread portadora durante todo o JDBC. Emails inexistentes não são armazenados.
+        Optional<Usuario> encontrado = usuarioRepository.findByEmail(email);
+        encontrado.ifPresent(u -> usuarios.put(email, u));
+        return encontrado;
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            usuarios.invalidate(email);
+        }
+    }
+
+    public void invalidateAll() {
+        usuarios.invalidateAll();
+    }
+}
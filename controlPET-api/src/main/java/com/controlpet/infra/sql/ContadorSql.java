@@ -0,0 +1,59 @@
+package com.controlpet.infra.sql;
+
+/**
+ * Contadores de SQL da requisição HTTP em andamento, mantidos por thread.
+ * O {@link ContadorSqlFilter} abre a medição no início da requisição e a encerra no fim;
+ * o {@link ContadorSqlListener} soma cada execução JDBC feita pela mesma thread.
+ * Consultas feitas em outras threads (ex.: continuação de uma resposta assíncrona) não entram na conta.
+ */
+public final class ContadorSql {
+
+    private static final ThreadLocal<Medicao> ATUAL = new ThreadLocal<>();
+
+    private ContadorSql() {
+    }
+
+    public static Medicao iniciar() {
+        Medicao medicao = new Medicao();
+        ATUAL.set(medicao);
+        return medicao;
+    }
+
+    public static void encerrar() {
+        ATUAL.remove();
+    }
+
+    static Medicao atual() {
+        return ATUAL.get();
+    }
+
+    public static final class Medicao {
+        private long consultas;
+        private long linhas;
+        private long tempoMs;
+
+        void registrarExecucao(long linhasAfetadas, long tempoMs) {
+            this.consultas++;
+            this.linhas += linhasAfetadas;
+            this.tempoMs += tempoMs;
+        }
+
+        void registrarLinhaLida() {
+            this.linhas++;
+        }
+
+        // Quantidade de execuções JDBC (um executeBatch conta como uma ida ao banco)
+        public long consultas() {
+            return consultas;
+        }
+
+        // Linhas lidas (ResultSet.next) mais linhas alteradas por INSERT/UPDATE/DELETE
+        public long linhas() {
+            return linhas;
+        }
+
+        public long tempoMs() {
+            return tempoMs;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.controlpet.infra.sql;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve o DataSource da aplicação com o datasource-proxy para que cada execução JDBC
+ * (e cada linha lida) seja contada pelo {@link ContadorSqlListener}.
+ */
+@Component
+@ConditionalOnProperty(name = "api.sql.metricas.enabled", matchIfMissing = true)
+public class ContadorSqlDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            ContadorSqlListener listener = new ContadorSqlListener();
+            return ProxyDataSourceBuilder.create(beanName, dataSource)
+                    .listener(listener)
+                    .methodListener(listener)
+                    .proxyResultSet()
+                    .build();
+        }
+        return bean;
+    }
+}
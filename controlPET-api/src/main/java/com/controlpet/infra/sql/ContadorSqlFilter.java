@@ -0,0 +1,103 @@
+package com.controlpet.infra.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede as consultas SQL de cada requisição HTTP. Os totais vão para as métricas
+ * sql.requisicao.* (por uri e método) e, se habilitado, para os cabeçalhos X-SQL-* da resposta.
+ * Vem antes do filtro do Spring Security para contar também a carga do usuário autenticado.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "api.sql.metricas.enabled", matchIfMissing = true)
+public class ContadorSqlFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO_CONSULTAS = "X-SQL-Consultas";
+    public static final String CABECALHO_LINHAS = "X-SQL-Linhas";
+    public static final String CABECALHO_TEMPO = "X-SQL-Tempo-Ms";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean cabecalhos;
+
+    public ContadorSqlFilter(MeterRegistry meterRegistry,
+                             @Value("${api.sql.metricas.cabecalhos:true}") boolean cabecalhos) {
+        this.meterRegistry = meterRegistry;
+        this.cabecalhos = cabecalhos;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContadorSql.Medicao medicao = ContadorSql.iniciar();
+        try {
+            // Os cabeçalhos precisam ser gravados antes de a resposta ser enviada ao cliente
+            filterChain.doFilter(request, cabecalhos ? new CabecalhosSqlResponse(response, medicao) : response);
+        } finally {
+            ContadorSql.encerrar();
+            if (cabecalhos && !response.isCommitted()) {
+                escreverCabecalhos(response, medicao);
+            }
+            registrarMetricas(request, medicao);
+        }
+    }
+
+    private void registrarMetricas(HttpServletRequest request, ContadorSql.Medicao medicao) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = padrao != null ? padrao.toString() : "UNKNOWN";
+        String metodo = request.getMethod();
+
+        DistributionSummary.builder("sql.requisicao.consultas")
+                .description("Execuções JDBC por requisição HTTP")
+                .tags("uri", uri, "method", metodo)
+                .register(meterRegistry)
+                .record(medicao.consultas());
+        DistributionSummary.builder("sql.requisicao.linhas")
+                .description("Linhas lidas ou alteradas por requisição HTTP")
+                .tags("uri", uri, "method", metodo)
+                .register(meterRegistry)
+                .record(medicao.linhas());
+        Timer.builder("sql.requisicao.tempo")
+                .description("Tempo gasto em JDBC por requisição HTTP")
+                .tags("uri", uri, "method", metodo)
+                .register(meterRegistry)
+                .record(medicao.tempoMs(), TimeUnit.MILLISECONDS);
+    }
+
+    private static void escreverCabecalhos(HttpServletResponse response, ContadorSql.Medicao medicao) {
+        response.setHeader(CABECALHO_CONSULTAS, String.valueOf(medicao.consultas()));
+        response.setHeader(CABECALHO_LINHAS, String.valueOf(medicao.linhas()));
+        response.setHeader(CABECALHO_TEMPO, String.valueOf(medicao.tempoMs()));
+    }
+
+    private static class CabecalhosSqlResponse extends OnCommittedResponseWrapper {
+
+        private final ContadorSql.Medicao medicao;
+
+        CabecalhosSqlResponse(HttpServletResponse response, ContadorSql.Medicao medicao) {
+            super(response);
+            this.medicao = medicao;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            escreverCabecalhos((HttpServletResponse) getResponse(), medicao);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.controlpet.infra.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Soma execuções, linhas e tempo de JDBC na {@link ContadorSql.Medicao} da thread atual.
+ * Fora de uma requisição HTTP (inicialização, tarefas em segundo plano) não faz nada.
+ */
+class ContadorSqlListener implements QueryExecutionListener, MethodExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        ContadorSql.Medicao medicao = ContadorSql.atual();
+        if (medicao != null) {
+            medicao.registrarExecucao(linhasAlteradas(execInfo.getResult()), execInfo.getElapsedTime());
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            ContadorSql.Medicao medicao = ContadorSql.atual();
+            if (medicao != null) {
+                medicao.registrarLinhaLida();
+            }
+        }
+    }
+
+    // executeUpdate devolve int, executeBatch devolve int[]; consultas devolvem o ResultSet
+    private static long linhasAlteradas(Object resultado) {
+        if (resultado instanceof Integer linhas) {
+            return Math.max(0, linhas);
+        }
+        if (resultado instanceof Long linhas) {
+            return Math.max(0, linhas);
+        }
+        long total = 0;
+        if (resultado instanceof int[] lote) {
+            for (int linhas : lote) {
+                total += Math.max(0, linhas);
+            }
+        }
+        return total;
+    }
+}
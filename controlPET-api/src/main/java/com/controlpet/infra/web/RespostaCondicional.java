@@ -0,0 +1,132 @@
+package com.controlpet.infra.web;
+
+import com.controlpet.dto.PaginaCursor;
+import com.controlpet.dto.VersaoDTO;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * GET condicional (If-None-Match / If-Modified-Since) a partir de {@link VersaoDTO}.
+ *
+ * Quando o cliente envia uma condição, ela é avaliada primeiro com as versões atuais, lidas por
+ * uma consulta que não traz o conteúdo (campos TEXT); se nada mudou, responde 304 sem carregar
+ * nem serializar o corpo; caso contrário a resposta leva os validadores do corpo carregado. Sem
+ * condição, o corpo é carregado direto e os validadores vêm dele, sem consulta extra. O ETag de
+ * um item é fraco e combina id, versão e a data de alteração da entidade relacionada; o de uma
+ * página combina os de todos os itens e o próximo cursor.
+ * Páginas não enviam Last-Modified: a exclusão de um item muda a página sem avançar nenhuma data.
+ */
+public final class RespostaCondicional {
+
+    private RespostaCondicional() {}
+
+    private record Validadores(String etag, long ultimaModificacao) {}
+
+    public static <T> ResponseEntity<T> item(WebRequest request, Supplier<VersaoDTO> versaoAtual,
+                                             Supplier<T> carregar, Function<T, VersaoDTO> versaoDoCorpo) {
+        return responder(request, () -> doItem(versaoAtual.get()), carregar, corpo -> doItem(versaoDoCorpo.apply(corpo)));
+    }
+
+    // Para recursos sem conteúdo pesado (ou já em cache): carrega e só então compara
+    public static <T> ResponseEntity<T> item(WebRequest request, Supplier<T> carregar, Function<T, VersaoDTO> versaoDoCorpo) {
+        return responder(request, null, carregar, corpo -> doItem(versaoDoCorpo.apply(corpo)));
+    }
+
+    public static <T> ResponseEntity<PaginaCursor<T>> pagina(WebRequest request, Supplier<PaginaCursor<VersaoDTO>> versoesAtuais,
+                                                             Supplier<PaginaCursor<T>> carregar, Function<T, VersaoDTO> versaoDoItem) {
+        return responder(request, () -> daPagina(versoesAtuais.get()), carregar,
+                pagina -> daPagina(pagina.map(versaoDoItem)));
+    }
+
+    public static <T> ResponseEntity<PaginaCursor<T>> pagina(WebRequest request, Supplier<PaginaCursor<T>> carregar,
+                                                             Function<T, VersaoDTO> versaoDoItem) {
+        return responder(request, null, carregar, pagina -> daPagina(pagina.map(versaoDoItem)));
+    }
+
+    private static <T> ResponseEntity<T> responder(WebRequest request, Supplier<Validadores> validadoresAtuais,
+                                                   Supplier<T> carregar, Function<T, Validadores> validadoresDoCorpo) {
+        boolean condicional = request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+        boolean verificado = condicional && validadoresAtuais != null;
+        if (verificado && naoModificado(request, validadoresAtuais.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        T corpo = carregar.get();
+        Validadores doCorpo = validadoresDoCorpo.apply(corpo);
+        if (!verificado) {
+            // Também grava ETag e Last-Modified na resposta
+            if (naoModificado(request, doCorpo)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            return ResponseEntity.ok(corpo);
+        }
+        // O checkNotModified mantém os primeiros validadores gravados, que são os da verificação; se o
+        // recurso mudou entre as duas leituras, eles não descrevem o corpo e precisam ser substituídos
+        gravarValidadores(request, doCorpo);
+        return ResponseEntity.ok(corpo);
+    }
+
+    private static void gravarValidadores(WebRequest request, Validadores validadores) {
+        if (request instanceof NativeWebRequest nativo
+                && nativo.getNativeResponse(HttpServletResponse.class) instanceof HttpServletResponse response) {
+            response.setHeader(HttpHeaders.ETAG, validadores.etag());
+            if (validadores.ultimaModificacao() > 0) {
+                response.setDateHeader(HttpHeaders.LAST_MODIFIED, validadores.ultimaModificacao());
+            }
+        }
+    }
+
+    private static boolean naoModificado(WebRequest request, Validadores validadores) {
+        return request.checkNotModified(validadores.etag(), validadores.ultimaModificacao());
+    }
+
+    private static Validadores doItem(VersaoDTO versao) {
+        return new Validadores("W/\"" + token(versao) + "\"",
+                Math.max(epochMillis(versao.atualizadoEm()), epochMillis(versao.atualizadoEmRelacionado())));
+    }
+
+    private static Validadores daPagina(PaginaCursor<VersaoDTO> pagina) {
+        MessageDigest digest = sha256();
+        for (VersaoDTO versao : pagina.itens()) {
+            digest.update((token(versao) + ";").getBytes(StandardCharsets.US_ASCII));
+        }
+        digest.update(String.valueOf(pagina.proximoCursor()).getBytes(StandardCharsets.US_ASCII));
+        byte[] hash = Arrays.copyOf(digest.digest(), 16);
+        return new Validadores("W/\"p-" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"", -1);
+    }
+
+    private static String token(VersaoDTO versao) {
+        LocalDateTime relacionado = versao.atualizadoEmRelacionado();
+        return versao.id() + "-" + versao.versao() + "-"
+                + (relacionado == null ? "0" : Long.toString(
+                        ChronoUnit.MICROS.between(LocalDateTime.of(2000, 1, 1, 0, 0), relacionado), 36));
+    }
+
+    // atualizadoEm é gravado no fuso do servidor (LocalDateTime.now())
+    private static long epochMillis(LocalDateTime dataHora) {
+        return dataHora == null ? -1 : dataHora.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
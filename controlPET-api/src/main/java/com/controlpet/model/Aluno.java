@@ -1,14 +1,26 @@
 package com.controlpet.model;
 
+import com.controlpet.infra.cache.CacheSegundoNivelConfig;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 import com.controlpet.model.enums.TipoEstudante;
 
 @Entity
-@Table(name = "alunos")
+// Índices dos filtros da busca de alunos; o id no fim atende a ordenação e o cursor da paginação.
+// tipo_estudante tem só dois valores e não compensa um índice próprio.
+@Table(name = "alunos",
+       indexes = {
+           @Index(name = "idx_alunos_curso", columnList = "curso, id"),
+           @Index(name = "idx_alunos_periodo_ano", columnList = "periodo_ano, id"),
+           @Index(name = "idx_alunos_edital_ingresso", columnList = "edital_ingresso, id")
+       })
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGIAO_ALUNOS)
 @Getter @Setter
 public class Aluno {
     
@@ -40,6 +52,12 @@ public class Aluno {
     
     @Column(name = "atualizado_em")
     private LocalDateTime atualizadoEm = LocalDateTime.now();
+
+    // Incrementada pelo Hibernate a cada alteração; compõe o ETag das respostas de GET
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
     
     
 
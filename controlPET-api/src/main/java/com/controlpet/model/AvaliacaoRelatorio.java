@@ -3,20 +3,24 @@ package com.controlpet.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 import com.controlpet.model.enums.CriterioAvaliacao; // Precisaremos criar este enum
 
 @Entity
-@Table(name = "avaliacoes_relatorio")
+@Table(name = "avaliacoes_relatorio",
+       indexes = @Index(name = "idx_avaliacoes_relatorio_atualizado_em", columnList = "atualizado_em, id"))
 @Getter @Setter
 public class AvaliacaoRelatorio {
 
+    // Sequence (e não IDENTITY) para que o Hibernate consiga agrupar INSERTs em lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "avaliacoes_relatorio_seq")
+    @SequenceGenerator(name = "avaliacoes_relatorio_seq", sequenceName = "avaliacoes_relatorio_seq", allocationSize = 50)
     private Integer id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "relatorio_id", unique = true, nullable = false)
     private Relatorio relatorio;
 
@@ -41,6 +45,12 @@ public class AvaliacaoRelatorio {
     @Column(name = "atualizado_em")
     private LocalDateTime atualizadoEm = LocalDateTime.now();
 
+    // Incrementada pelo Hibernate a cada alteração; compõe o ETag das respostas de GET
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
     @PreUpdate
     protected void onUpdate() {
         this.atualizadoEm = LocalDateTime.now();
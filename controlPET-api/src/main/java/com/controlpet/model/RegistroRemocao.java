@@ -0,0 +1,42 @@
+package com.controlpet.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+import com.controlpet.model.enums.TipoRecurso;
+
+/**
+ * Marca a exclusão de um relatório ou avaliação, para que a sincronização incremental
+ * informe aos clientes o que deve sair da cópia local. É gravado na mesma transação da exclusão.
+ */
+@Entity
+@Table(name = "registros_remocao",
+       indexes = @Index(name = "idx_registros_remocao_removido_em", columnList = "removido_em, id"))
+@Getter @Setter
+@NoArgsConstructor
+public class RegistroRemocao {
+
+    // Sequence para que os registros de uma exclusão em massa sejam gravados em lotes JDBC
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "registros_remocao_seq")
+    @SequenceGenerator(name = "registros_remocao_seq", sequenceName = "registros_remocao_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoRecurso tipo;
+
+    @Column(name = "recurso_id", nullable = false)
+    private Integer recursoId;
+
+    @Column(name = "removido_em", nullable = false)
+    private LocalDateTime removidoEm = LocalDateTime.now();
+
+    public RegistroRemocao(TipoRecurso tipo, Integer recursoId) {
+        this.tipo = tipo;
+        this.recursoId = recursoId;
+    }
+}
@@ -4,19 +4,27 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
-@Table(name = "relatorios")
+@Table(name = "relatorios",
+       indexes = {
+           @Index(name = "idx_relatorios_atualizado_em", columnList = "atualizado_em, id"),
+           // Relatórios de um aluno por período: igualdade no aluno e faixa na data inicial
+           @Index(name = "idx_relatorios_aluno_data", columnList = "aluno_id, data_inicial")
+       })
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Getter @Setter
 public class Relatorio {
     
+    // Sequence (e não IDENTITY) para que o Hibernate consiga agrupar INSERTs em lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "relatorios_seq")
+    @SequenceGenerator(name = "relatorios_seq", sequenceName = "relatorios_seq", allocationSize = 50)
     private Integer id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -48,6 +56,12 @@ public class Relatorio {
     
     @Column(name = "atualizado_em")
     private LocalDateTime atualizadoEm = LocalDateTime.now();
+
+    // Incrementada pelo Hibernate a cada alteração; compõe o ETag das respostas de GET
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
     
     
 
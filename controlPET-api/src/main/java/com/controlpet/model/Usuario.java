@@ -1,15 +1,24 @@
 package com.controlpet.model;
 
+import com.controlpet.infra.cache.CacheSegundoNivelConfig;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 
 import com.controlpet.model.enums.TipoUsuario;
 
 @Entity
 @Table(name = "usuarios")
+// Lido a cada requisição autenticada e quase nunca alterado: fica no cache de segundo nível,
+// inclusive a busca por email (natural id)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGIAO_USUARIOS)
+@NaturalIdCache(region = CacheSegundoNivelConfig.REGIAO_USUARIOS_EMAIL)
 @Getter @Setter
 @NoArgsConstructor
 public class Usuario {
@@ -21,6 +30,7 @@ public class Usuario {
     @Column(nullable = false, length = 100)
     private String nome;
     
+    @NaturalId
     @Column(nullable = false, unique = true, length = 100)
     private String email;
     
@@ -0,0 +1,7 @@
+package com.controlpet.model.enums;
+
+// Recursos acompanhados pela sincronização incremental (ver SincronizacaoService)
+public enum TipoRecurso {
+    relatorio,
+    avaliacao
+}
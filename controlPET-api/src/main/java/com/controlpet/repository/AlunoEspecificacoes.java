@@ -0,0 +1,74 @@
+package com.controlpet.repository;
+
+import com.controlpet.dto.FiltroAlunoDTO;
+import com.controlpet.model.Aluno;
+import com.controlpet.model.Usuario;
+import com.controlpet.model.enums.TipoEstudante;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Specifications da busca de alunos. Cada filtro vazio vira {@code null} e é ignorado na composição.
+ * O usuário vem por fetch join na mesma consulta (sem um SELECT por aluno), e o filtro por nome
+ * reaproveita esse mesmo join.
+ */
+public final class AlunoEspecificacoes {
+
+    private AlunoEspecificacoes() {
+    }
+
+    public static Specification<Aluno> buscar(FiltroAlunoDTO filtro, Integer aposId) {
+        return Specification.where(comUsuario())
+                .and(aposId(aposId))
+                .and(igual("curso", filtro.curso()))
+                .and(comTipoEstudante(filtro.tipoEstudante()))
+                .and(igual("periodoAno", filtro.periodoAno()))
+                .and(igual("editalIngresso", filtro.editalIngresso()))
+                .and(nomeContem(filtro.nome()));
+    }
+
+    public static Specification<Aluno> comUsuario() {
+        return (root, query, cb) -> {
+            usuario(root);
+            return null;
+        };
+    }
+
+    // Paginação por cursor: com a ordenação por id, a consulta para assim que a página enche
+    public static Specification<Aluno> aposId(Integer id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<Aluno> comTipoEstudante(TipoEstudante tipoEstudante) {
+        return tipoEstudante == null ? null
+                : (root, query, cb) -> cb.equal(root.get("tipoEstudante"), tipoEstudante);
+    }
+
+    public static Specification<Aluno> nomeContem(String nome) {
+        if (nome == null || nome.isBlank()) {
+            return null;
+        }
+        String padrao = "%" + nome.trim().toLowerCase()
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(usuario(root).get("nome")), padrao, '\\');
+    }
+
+    private static Specification<Aluno> igual(String atributo, String valor) {
+        return valor == null || valor.isBlank() ? null
+                : (root, query, cb) -> cb.equal(root.get(atributo), valor.trim());
+    }
+
+    // Um único join com usuarios por consulta, criado como fetch para já carregar o usuário
+    @SuppressWarnings("unchecked")
+    private static Join<Aluno, Usuario> usuario(Root<Aluno> root) {
+        for (Fetch<Aluno, ?> fetch : root.getFetches()) {
+            if (fetch.getAttribute().getName().equals("usuario")) {
+                return (Join<Aluno, Usuario>) fetch;
+            }
+        }
+        return (Join<Aluno, Usuario>) root.<Aluno, Usuario>fetch("usuario", JoinType.LEFT);
+    }
+}
@@ -1,11 +1,30 @@
 package com.controlpet.repository;
 
 import com.controlpet.model.Aluno;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 @Repository
-public interface AlunoRepository extends JpaRepository<Aluno, Integer> {
+@Transactional(readOnly = true)
+public interface AlunoRepository extends JpaRepository<Aluno, Integer>, JpaSpecificationExecutor<Aluno> {
     boolean existsByUsuarioId(Integer usuarioId);
     Aluno findByUsuarioId(Integer usuarioId);
+
+    // Paginação por cursor; o usuário vem na mesma consulta para não gerar um SELECT por aluno
+    @EntityGraph(attributePaths = "usuario")
+    List<Aluno> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    // Quais dos ids informados existem, em uma única consulta
+    @Query("select a.id from Aluno a where a.id in :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
 }
\ No newline at end of file
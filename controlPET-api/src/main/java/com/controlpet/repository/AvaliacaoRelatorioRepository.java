@@ -1,18 +1,124 @@
 package com.controlpet.repository;
 
+import com.controlpet.dto.AvaliacaoRelatorioResponse;
+import com.controlpet.dto.AvaliacaoResumoDTO;
+import com.controlpet.dto.VersaoDTO;
 import com.controlpet.model.AvaliacaoRelatorio;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Transactional; // Importe para este método
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
+@Transactional(readOnly = true)
 public interface AvaliacaoRelatorioRepository extends JpaRepository<AvaliacaoRelatorio, Integer> {
     Optional<AvaliacaoRelatorio> findByRelatorioId(Integer relatorioId);
     boolean existsByRelatorioId(Integer relatorioId);
 
-    // NOVO MÉTODO: Deleta todas as AvaliacaoRelatorio por relatorioId
+    // Quais dos relatórios informados já têm avaliação, em uma única consulta
+    @Query("select a.relatorio.id from AvaliacaoRelatorio a where a.relatorio.id in :relatorioIds")
+    Set<Integer> findRelatorioIdsAvaliados(@Param("relatorioIds") Collection<Integer> relatorioIds);
+
+    // Seleciona só as colunas do DTO de resposta; do relatório vêm apenas id e tipo
+    String PROJECAO_RESPOSTA = """
+            select new com.controlpet.dto.AvaliacaoRelatorioResponse(
+                a.id, r.id, r.tipoRelatorio, a.cargaHoraria, a.interesseAtividades,
+                a.habilidadesDesenvolvidas, a.outrasInformacoes, a.criadoEm, a.atualizadoEm,
+                a.versao, r.atualizadoEm)
+            from AvaliacaoRelatorio a
+            join a.relatorio r
+            """;
+
+    // Só as colunas que compõem o ETag (sem outrasInformacoes), para responder GETs condicionais
+    String PROJECAO_VERSAO = """
+            select new com.controlpet.dto.VersaoDTO(a.id, a.versao, a.atualizadoEm, r.atualizadoEm)
+            from AvaliacaoRelatorio a
+            join a.relatorio r
+            """;
+
+    // Paginação por cursor: próximos registros após o último id já entregue
+    @Query(PROJECAO_RESPOSTA + "where a.id > :id order by a.id")
+    List<AvaliacaoRelatorioResponse> findResponsesAfterId(@Param("id") Integer id, Limit limit);
+
+    @Query(PROJECAO_RESPOSTA + "where a.id = :id")
+    Optional<AvaliacaoRelatorioResponse> findResponseById(@Param("id") Integer id);
+
+    @Query(PROJECAO_RESPOSTA + "where r.id = :relatorioId")
+    Optional<AvaliacaoRelatorioResponse> findResponseByRelatorioId(@Param("relatorioId") Integer relatorioId);
+
+    @Query(PROJECAO_VERSAO + "where a.id > :id order by a.id")
+    List<VersaoDTO> findVersoesAfterId(@Param("id") Integer id, Limit limit);
+
+    @Query(PROJECAO_VERSAO + "where a.id = :id")
+    Optional<VersaoDTO> findVersaoById(@Param("id") Integer id);
+
+    @Query(PROJECAO_VERSAO + "where r.id = :relatorioId")
+    Optional<VersaoDTO> findVersaoByRelatorioId(@Param("relatorioId") Integer relatorioId);
+
+    // Sincronização incremental: alteradas depois da posição (atualizadoEm, id) e até :ate
+    @Query(PROJECAO_RESPOSTA + """
+            where (a.atualizadoEm, a.id) > (:desde, :id)
+              and a.atualizadoEm <= :ate
+            order by a.atualizadoEm, a.id
+            """)
+    List<AvaliacaoRelatorioResponse> findAlteradasDesde(@Param("desde") LocalDateTime desde,
+                                                        @Param("id") Integer id,
+                                                        @Param("ate") LocalDateTime ate,
+                                                        Limit limit);
+
+    // Dados usados pelas estatísticas de avaliação (aluno e data do relatório + conceitos)
+    String PROJECAO_RESUMO = """
+            select new com.controlpet.dto.AvaliacaoResumoDTO(
+                a.id, r.id, r.aluno.id, r.dataInicial,
+                a.cargaHoraria, a.interesseAtividades, a.habilidadesDesenvolvidas)
+            from AvaliacaoRelatorio a
+            join a.relatorio r
+            """;
+
+    @Query(PROJECAO_RESUMO + "where a.id = :id")
+    Optional<AvaliacaoResumoDTO> findResumoById(@Param("id") Integer id);
+
+    @Query(PROJECAO_RESUMO + "where r.id = :relatorioId")
+    Optional<AvaliacaoResumoDTO> findResumoByRelatorioId(@Param("relatorioId") Integer relatorioId);
+
+    @Query(PROJECAO_RESUMO + "where r.id in :relatorioIds")
+    List<AvaliacaoResumoDTO> findResumosByRelatorioIds(@Param("relatorioIds") Collection<Integer> relatorioIds);
+
+    @Query(PROJECAO_RESUMO + "where r.aluno.id = :alunoId")
+    List<AvaliacaoResumoDTO> findResumosByAlunoId(@Param("alunoId") Integer alunoId);
+
+    // Percorre todas as avaliações sem materializar a lista; consumir dentro de uma transação
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(PROJECAO_RESUMO)
+    Stream<AvaliacaoResumoDTO> streamResumos();
+
+    @Query(PROJECAO_RESUMO + "where a.id in :ids")
+    List<AvaliacaoResumoDTO> findResumosByIds(@Param("ids") Collection<Integer> ids);
+
+    // Exclusões em um único DELETE, sem carregar as entidades
+    @Transactional
+    @Modifying
+    @Query("delete from AvaliacaoRelatorio a where a.relatorio.id in :relatorioIds")
+    int deleteByRelatorioIds(@Param("relatorioIds") Collection<Integer> relatorioIds);
+
     @Transactional
-    void deleteByRelatorioId(Integer relatorioId);
+    @Modifying
+    @Query("delete from AvaliacaoRelatorio a where a.relatorio.id in (select r.id from Relatorio r where r.aluno.id = :alunoId)")
+    int deleteByAlunoId(@Param("alunoId") Integer alunoId);
 }
\ No newline at end of file
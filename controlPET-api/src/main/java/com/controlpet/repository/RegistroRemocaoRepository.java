@@ -0,0 +1,35 @@
+package com.controlpet.repository;
+
+import com.controlpet.dto.RemocaoDTO;
+import com.controlpet.model.RegistroRemocao;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface RegistroRemocaoRepository extends JpaRepository<RegistroRemocao, Long> {
+
+    // Exclusões depois da posição (removidoEm, id) e até :ate, na ordem do cursor de sincronização
+    @Query("""
+            select new com.controlpet.dto.RemocaoDTO(r.tipo, r.recursoId, r.removidoEm, r.id)
+            from RegistroRemocao r
+            where (r.removidoEm, r.id) > (:desde, :id)
+              and r.removidoEm <= :ate
+            order by r.removidoEm, r.id
+            """)
+    List<RemocaoDTO> findRemovidosDesde(@Param("desde") LocalDateTime desde,
+                                       @Param("id") Long id,
+                                       @Param("ate") LocalDateTime ate,
+                                       Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RegistroRemocao r where r.removidoEm < :limite")
+    int deleteRemovidosAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -1,7 +1,147 @@
 package com.controlpet.repository;
 
+import com.controlpet.dto.RelatorioResponseDTO;
+import com.controlpet.dto.RelatorioTextoDTO;
+import com.controlpet.dto.VersaoDTO;
 import com.controlpet.model.Relatorio;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Transactional(readOnly = true)
 public interface RelatorioRepository extends JpaRepository<Relatorio, Integer> {
+
+    // Monta o DTO de resposta direto no SELECT, com aluno e usuário no mesmo join (sem N+1)
+    String PROJECAO_RESPOSTA = """
+            select new com.controlpet.dto.RelatorioResponseDTO(
+                r.id, r.tipoRelatorio, r.dataInicial, r.dataFinal,
+                r.resumoAtividades, r.comentarios, a.id, u.nome,
+                r.versao, r.atualizadoEm, u.atualizadoEm)
+            from Relatorio r
+            join r.aluno a
+            left join a.usuario u
+            """;
+
+    // Só as colunas que compõem o ETag (sem os campos TEXT), para responder GETs condicionais
+    String PROJECAO_VERSAO = """
+            select new com.controlpet.dto.VersaoDTO(r.id, r.versao, r.atualizadoEm, u.atualizadoEm)
+            from Relatorio r
+            join r.aluno a
+            left join a.usuario u
+            """;
+
+    // Paginação por cursor: próximos registros após o último id já entregue
+    @Query(PROJECAO_RESPOSTA + "where r.id > :id order by r.id")
+    List<RelatorioResponseDTO> findResponsesAfterId(@Param("id") Integer id, Limit limit);
+
+    @Query(PROJECAO_RESPOSTA + "where r.id = :id")
+    Optional<RelatorioResponseDTO> findResponseById(@Param("id") Integer id);
+
+    @Query(PROJECAO_VERSAO + "where r.id > :id order by r.id")
+    List<VersaoDTO> findVersoesAfterId(@Param("id") Integer id, Limit limit);
+
+    @Query(PROJECAO_VERSAO + "where r.id = :id")
+    Optional<VersaoDTO> findVersaoById(@Param("id") Integer id);
+
+    // Sincronização incremental: alterados depois da posição (atualizadoEm, id) e até :ate
+    @Query(PROJECAO_RESPOSTA + """
+            where (r.atualizadoEm, r.id) > (:desde, :id)
+              and r.atualizadoEm <= :ate
+            order by r.atualizadoEm, r.id
+            """)
+    List<RelatorioResponseDTO> findAlteradosDesde(@Param("desde") LocalDateTime desde,
+                                                  @Param("id") Integer id,
+                                                  @Param("ate") LocalDateTime ate,
+                                                  Limit limit);
+
+    // Relatórios de um aluno com data inicial no período; percorre idx_relatorios_aluno_data
+    @Query(PROJECAO_RESPOSTA + """
+            where r.aluno.id = :alunoId
+              and r.dataInicial between :de and :ate
+            order by r.dataInicial, r.id
+            """)
+    List<RelatorioResponseDTO> findResponsesByAlunoAndPeriodo(@Param("alunoId") Integer alunoId,
+                                                              @Param("de") LocalDate de,
+                                                              @Param("ate") LocalDate ate);
+
+    // Quais dos ids informados existem, em uma única consulta
+    @Query("select r.id from Relatorio r where r.id in :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("select r.id from Relatorio r where r.aluno.id = :alunoId")
+    List<Integer> findIdsByAlunoId(@Param("alunoId") Integer alunoId);
+
+    // Exclusões em um único DELETE; as avaliações dos relatórios precisam ter sido excluídas antes
+    @Transactional
+    @Modifying
+    @Query("delete from Relatorio r where r.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Integer> ids);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Relatorio r where r.aluno.id = :alunoId")
+    int deleteByAlunoId(@Param("alunoId") Integer alunoId);
+
+    @Query(PROJECAO_RESPOSTA + "where r.id in :ids")
+    List<RelatorioResponseDTO> findResponsesByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Percorre os relatórios por um cursor JDBC, sem materializar a lista.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     * No MySQL o fetch size só é respeitado com {@code useCursorFetch=true} na URL de conexão.
+     * Há uma consulta por combinação de filtros: um predicado "(:param is null or ...)" impediria
+     * o banco de usar idx_relatorios_aluno_data no filtro por aluno.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(PROJECAO_RESPOSTA + "order by r.id")
+    Stream<RelatorioResponseDTO> streamResponses();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(PROJECAO_RESPOSTA + """
+            where r.dataInicial between :de and :ate
+            order by r.id
+            """)
+    Stream<RelatorioResponseDTO> streamResponsesByPeriodo(@Param("de") LocalDate de,
+                                                          @Param("ate") LocalDate ate);
+
+    // Faixa de idx_relatorios_aluno_data, na ordem do índice
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(PROJECAO_RESPOSTA + """
+            where a.id = :alunoId and r.dataInicial between :de and :ate
+            order by r.dataInicial, r.id
+            """)
+    Stream<RelatorioResponseDTO> streamResponsesByAlunoAndPeriodo(@Param("alunoId") Integer alunoId,
+                                                                  @Param("de") LocalDate de,
+                                                                  @Param("ate") LocalDate ate);
+
+    // Usado para reconstruir o índice de busca; mesmas regras de consumo do streamResponses
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.controlpet.dto.RelatorioTextoDTO(r.id, r.resumoAtividades, r.comentarios) from Relatorio r")
+    Stream<RelatorioTextoDTO> streamTextos();
 }
\ No newline at end of file
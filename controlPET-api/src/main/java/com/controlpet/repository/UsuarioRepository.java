@@ -2,11 +2,22 @@ package com.controlpet.repository;
 
 import com.controlpet.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import java.util.Optional;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
-    Optional<Usuario> findByEmail(String email);
+@Transactional(readOnly = true)
+public interface UsuarioRepository extends JpaRepository<Usuario, Integer>, UsuarioRepositoryCustom {
     boolean existsByEmail(String email);
+
+    // Só troca o hash se ele ainda for o mesmo lido antes (não sobrescreve uma troca de senha concorrente)
+    @Transactional
+    @Modifying
+    @Query("update Usuario u set u.senhaHash = :novoHash, u.atualizadoEm = local datetime where u.id = :id and u.senhaHash = :hashAnterior")
+    int substituirSenhaHash(@Param("id") Integer id,
+                            @Param("hashAnterior") String hashAnterior,
+                            @Param("novoHash") String novoHash);
 }
\ No newline at end of file
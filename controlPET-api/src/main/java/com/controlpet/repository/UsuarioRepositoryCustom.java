@@ -0,0 +1,11 @@
+package com.controlpet.repository;
+
+import com.controlpet.model.Usuario;
+
+import java.util.Optional;
+
+public interface UsuarioRepositoryCustom {
+
+    // Busca pelo natural id (email), atendida pelo cache de segundo nível quando o usuário já foi carregado
+    Optional<Usuario> findByEmail(String email);
+}
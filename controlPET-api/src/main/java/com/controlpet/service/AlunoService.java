@@ -1,61 +1,84 @@
 package com.controlpet.service;
 
 import com.controlpet.dto.AlunoDTO;
+import com.controlpet.dto.FiltroAlunoDTO;
+import com.controlpet.dto.PaginaCursor;
+import com.controlpet.exception.ConflitoException;
+import com.controlpet.exception.RecursoNaoEncontradoException;
 import com.controlpet.model.Aluno;
 import com.controlpet.model.Usuario;
+import com.controlpet.repository.AlunoEspecificacoes;
 import com.controlpet.repository.AlunoRepository;
 import com.controlpet.repository.UsuarioRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-
 @Service
 public class AlunoService {
 
     private final AlunoRepository alunoRepository;
     private final UsuarioRepository usuarioRepository;
+    private final RelatorioService relatorioService;
 
     public AlunoService(AlunoRepository alunoRepository, 
-                       UsuarioRepository usuarioRepository) {
+                       UsuarioRepository usuarioRepository,
+                       RelatorioService relatorioService) {
         this.alunoRepository = alunoRepository;
         this.usuarioRepository = usuarioRepository;
+        this.relatorioService = relatorioService;
     }
     
     	// Verificar se usuário já tem aluno associado
     private void verificarUsuarioJaPossuiAluno(Integer usuarioId) {
         if (alunoRepository.existsByUsuarioId(usuarioId)) {
-            throw new IllegalArgumentException("Usuário já possui um aluno associado");
+            throw new ConflitoException("Usuário já possui um aluno associado");
         }
     }
 
     @Transactional
     public Aluno criarAluno(AlunoDTO alunoDTO) {
-        validarUsuario(alunoDTO.usuarioId());
+        Usuario usuario = buscarUsuario(alunoDTO.usuarioId());
         verificarUsuarioJaPossuiAluno(alunoDTO.usuarioId());
         
         Aluno aluno = new Aluno();
-        mapearDTOParaEntidade(alunoDTO, aluno);
+        mapearDTOParaEntidade(alunoDTO, aluno, usuario);
         
         return alunoRepository.save(aluno);
     }
 
-    public List<Aluno> listarTodos() {
-        return alunoRepository.findAll();
+    public PaginaCursor<Aluno> listarPagina(String cursor, Integer tamanho) {
+        int tamanhoPagina = PaginaCursor.normalizarTamanho(tamanho);
+        var alunos = alunoRepository.findByIdGreaterThanOrderByIdAsc(
+                PaginaCursor.decodificarCursor(cursor), Limit.of(tamanhoPagina + 1));
+        return PaginaCursor.de(alunos, tamanhoPagina, Aluno::getId);
+    }
+
+    /**
+     * Busca paginada por cursor com os filtros informados, em uma única consulta (usuário por fetch join).
+     * Os filtros exatos usam os índices de alunos; o filtro por nome é aplicado sobre as linhas que restam.
+     */
+    public PaginaCursor<Aluno> buscar(FiltroAlunoDTO filtro, String cursor, Integer tamanho) {
+        int tamanhoPagina = PaginaCursor.normalizarTamanho(tamanho);
+        var alunos = alunoRepository.findBy(
+                AlunoEspecificacoes.buscar(filtro, PaginaCursor.decodificarCursor(cursor)),
+                consulta -> consulta.sortBy(Sort.by("id")).limit(tamanhoPagina + 1).all());
+        return PaginaCursor.de(alunos, tamanhoPagina, Aluno::getId);
     }
 
     public Aluno buscarPorId(Integer id) {
         return alunoRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Aluno não encontrado"));
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Aluno não encontrado"));
     }
 
     @Transactional
     public Aluno atualizarAluno(Integer id, AlunoDTO alunoDTO) {
         Aluno alunoExistente = alunoRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Aluno não encontrado"));
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Aluno não encontrado"));
         
-        validarUsuario(alunoDTO.usuarioId());
-        mapearDTOParaEntidade(alunoDTO, alunoExistente);
+        Usuario usuario = buscarUsuario(alunoDTO.usuarioId());
+        mapearDTOParaEntidade(alunoDTO, alunoExistente, usuario);
         
         return alunoRepository.save(alunoExistente);
     }
@@ -63,21 +86,20 @@ public class AlunoService {
     @Transactional
     public void deletarAluno(Integer id) {
         if (!alunoRepository.existsById(id)) {
-            throw new IllegalArgumentException("Aluno não encontrado");
+            throw new RecursoNaoEncontradoException("Aluno não encontrado");
         }
+        // Relatórios e avaliações do aluno saem em DELETEs por conjunto, não um a um
+        relatorioService.deletarRelatoriosDoAluno(id);
         alunoRepository.deleteById(id);
     }
 
-    private void validarUsuario(Integer usuarioId) {
-        if (!usuarioRepository.existsById(usuarioId)) {
-            throw new IllegalArgumentException("Usuário não encontrado");
-        }
+    // Carrega o usuário uma única vez (validação + associação); vem do cache de segundo nível quando possível
+    private Usuario buscarUsuario(Integer usuarioId) {
+        return usuarioRepository.findById(usuarioId)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado"));
     }
 
-    private void mapearDTOParaEntidade(AlunoDTO dto, Aluno aluno) {
-        Usuario usuario = usuarioRepository.findById(dto.usuarioId())
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
-        
+    private void mapearDTOParaEntidade(AlunoDTO dto, Aluno aluno, Usuario usuario) {
         aluno.setUsuario(usuario);
         aluno.setIdade(dto.idade());
         aluno.setPeriodoAno(dto.periodoAno());
@@ -2,16 +2,38 @@ package com.controlpet.service;
 
 import com.controlpet.dto.AvaliacaoRelatorioRequest;
 import com.controlpet.dto.AvaliacaoRelatorioResponse;
+import com.controlpet.dto.AvaliacaoResumoDTO;
+import com.controlpet.dto.PaginaCursor;
+import com.controlpet.dto.ResultadoItemLoteDTO;
+import com.controlpet.dto.ResultadoLoteDTO;
+import com.controlpet.dto.VersaoDTO;
+import com.controlpet.event.AvaliacaoRemovidaEvent;
+import com.controlpet.event.AvaliacaoSalvaEvent;
+import com.controlpet.exception.ConflitoException;
+import com.controlpet.exception.RecursoNaoEncontradoException;
+import com.controlpet.exception.ValidacaoException;
 import com.controlpet.model.AvaliacaoRelatorio;
 import com.controlpet.model.Relatorio;
 import com.controlpet.repository.AvaliacaoRelatorioRepository;
 import com.controlpet.repository.RelatorioRepository;
-import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,71 +45,207 @@ public class AvaliacaoRelatorioService {
     @Autowired
     private RelatorioRepository relatorioRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoLoteJdbc;
+
+    @Value("${api.lote.tamanho-maximo:1000}")
+    private int tamanhoMaximoLote;
+
     @Transactional
     public AvaliacaoRelatorioResponse criarAvaliacao(AvaliacaoRelatorioRequest request) {
         Relatorio relatorio = relatorioRepository.findById(request.getRelatorioId())
-                .orElseThrow(() -> new EntityNotFoundException("Relatório não encontrado com ID: " + request.getRelatorioId()));
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Relatório não encontrado com ID: " + request.getRelatorioId()));
 
         if (avaliacaoRelatorioRepository.existsByRelatorioId(relatorio.getId())) {
-            throw new IllegalArgumentException("Já existe uma avaliação para o relatório com ID: " + relatorio.getId());
+            throw new ConflitoException("Já existe uma avaliação para o relatório com ID: " + relatorio.getId());
+        }
+
+        AvaliacaoRelatorio savedAvaliacao = avaliacaoRelatorioRepository.save(novaAvaliacao(request, relatorio));
+        eventPublisher.publishEvent(new AvaliacaoSalvaEvent(null, resumo(savedAvaliacao)));
+        return convertToResponse(savedAvaliacao);
+    }
+
+    /**
+     * Cria várias avaliações em uma transação. Os relatórios são carregados e as avaliações
+     * já existentes são conferidas em uma consulta IN cada; os INSERTs vão em lotes JDBC de
+     * {@code hibernate.jdbc.batch_size}. Itens inválidos são reportados no resultado sem
+     * interromper os demais.
+     */
+    @Transactional
+    public ResultadoLoteDTO criarAvaliacoesEmLote(List<AvaliacaoRelatorioRequest> requests) {
+        validarTamanhoDoLote(requests);
+        Set<Integer> relatorioIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(AvaliacaoRelatorioRequest::getRelatorioId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, Relatorio> relatorios = relatorioIds.isEmpty() ? Map.of()
+                : relatorioRepository.findAllById(relatorioIds).stream()
+                        .collect(Collectors.toMap(Relatorio::getId, Function.identity()));
+        // Também recebe os relatórios avaliados neste lote, para recusar itens repetidos
+        Set<Integer> avaliados = relatorios.isEmpty() ? new HashSet<>()
+                : new HashSet<>(avaliacaoRelatorioRepository.findRelatorioIdsAvaliados(relatorios.keySet()));
+
+        List<ResultadoItemLoteDTO> resultados = new ArrayList<>(requests.size());
+        List<AvaliacaoRelatorio> pendentes = new ArrayList<>(tamanhoLoteJdbc);
+        List<Integer> indicesPendentes = new ArrayList<>(tamanhoLoteJdbc);
+
+        for (int indice = 0; indice < requests.size(); indice++) {
+            AvaliacaoRelatorioRequest request = requests.get(indice);
+            String erro = validarItem(request, relatorios, avaliados);
+            if (erro != null) {
+                resultados.add(ResultadoItemLoteDTO.falha(indice, erro));
+                continue;
+            }
+
+            AvaliacaoRelatorio avaliacao = novaAvaliacao(request, relatorios.get(request.getRelatorioId()));
+            entityManager.persist(avaliacao);
+            avaliados.add(request.getRelatorioId());
+            pendentes.add(avaliacao);
+            indicesPendentes.add(indice);
+            resultados.add(null); // preenchido quando o lote for gravado
+
+            if (pendentes.size() == tamanhoLoteJdbc) {
+                gravarLote(pendentes, indicesPendentes, resultados);
+            }
+        }
+        gravarLote(pendentes, indicesPendentes, resultados);
+
+        return ResultadoLoteDTO.de(resultados);
+    }
+
+    private String validarItem(AvaliacaoRelatorioRequest request, Map<Integer, Relatorio> relatorios, Set<Integer> avaliados) {
+        if (request == null) {
+            return "Avaliação vazia";
         }
+        Set<ConstraintViolation<AvaliacaoRelatorioRequest>> violacoes = validator.validate(request);
+        if (!violacoes.isEmpty()) {
+            return violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!relatorios.containsKey(request.getRelatorioId())) {
+            return "Relatório não encontrado com ID: " + request.getRelatorioId();
+        }
+        if (avaliados.contains(request.getRelatorioId())) {
+            return "Já existe uma avaliação para o relatório com ID: " + request.getRelatorioId();
+        }
+        return null;
+    }
 
+    // Envia os INSERTs pendentes como um lote JDBC e libera as avaliações do contexto de persistência
+    private void gravarLote(List<AvaliacaoRelatorio> pendentes, List<Integer> indices, List<ResultadoItemLoteDTO> resultados) {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        for (int i = 0; i < pendentes.size(); i++) {
+            AvaliacaoRelatorio avaliacao = pendentes.get(i);
+            resultados.set(indices.get(i), ResultadoItemLoteDTO.sucesso(indices.get(i), avaliacao.getId()));
+            eventPublisher.publishEvent(new AvaliacaoSalvaEvent(null, resumo(avaliacao)));
+            entityManager.detach(avaliacao);
+        }
+        pendentes.clear();
+        indices.clear();
+    }
+
+    private AvaliacaoRelatorio novaAvaliacao(AvaliacaoRelatorioRequest request, Relatorio relatorio) {
         AvaliacaoRelatorio avaliacao = new AvaliacaoRelatorio();
         avaliacao.setRelatorio(relatorio);
         avaliacao.setCargaHoraria(request.getCargaHoraria());
         avaliacao.setInteresseAtividades(request.getInteresseAtividades());
         avaliacao.setHabilidadesDesenvolvidas(request.getHabilidadesDesenvolvidas());
         avaliacao.setOutrasInformacoes(request.getOutrasInformacoes());
+        return avaliacao;
+    }
 
-        AvaliacaoRelatorio savedAvaliacao = avaliacaoRelatorioRepository.save(avaliacao);
-        return convertToResponse(savedAvaliacao);
+    public PaginaCursor<AvaliacaoRelatorioResponse> buscarAvaliacoes(String cursor, Integer tamanho) {
+        int tamanhoPagina = PaginaCursor.normalizarTamanho(tamanho);
+        var avaliacoes = avaliacaoRelatorioRepository.findResponsesAfterId(
+                PaginaCursor.decodificarCursor(cursor), Limit.of(tamanhoPagina + 1));
+        return PaginaCursor.de(avaliacoes, tamanhoPagina, AvaliacaoRelatorioResponse::getId);
     }
 
-    public List<AvaliacaoRelatorioResponse> buscarTodasAvaliacoes() {
-        return avaliacaoRelatorioRepository.findAll().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    // Versões da mesma página de buscarAvaliacoes, sem o conteúdo (para GET condicional)
+    public PaginaCursor<VersaoDTO> buscarVersoes(String cursor, Integer tamanho) {
+        int tamanhoPagina = PaginaCursor.normalizarTamanho(tamanho);
+        var versoes = avaliacaoRelatorioRepository.findVersoesAfterId(
+                PaginaCursor.decodificarCursor(cursor), Limit.of(tamanhoPagina + 1));
+        return PaginaCursor.de(versoes, tamanhoPagina, VersaoDTO::id);
+    }
+
+    public VersaoDTO buscarVersaoPorId(Integer id) {
+        return avaliacaoRelatorioRepository.findVersaoById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Avaliação de relatório não encontrada com ID: " + id));
+    }
+
+    public VersaoDTO buscarVersaoPorRelatorioId(Integer relatorioId) {
+        return avaliacaoRelatorioRepository.findVersaoByRelatorioId(relatorioId)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Avaliação não encontrada para o relatório com ID: " + relatorioId));
     }
 
     public AvaliacaoRelatorioResponse buscarAvaliacaoPorId(Integer id) {
-        AvaliacaoRelatorio avaliacao = avaliacaoRelatorioRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Avaliação de relatório não encontrada com ID: " + id));
-        return convertToResponse(avaliacao);
+        return avaliacaoRelatorioRepository.findResponseById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Avaliação de relatório não encontrada com ID: " + id));
     }
 
     public AvaliacaoRelatorioResponse buscarAvaliacaoPorRelatorioId(Integer relatorioId) {
-        AvaliacaoRelatorio avaliacao = avaliacaoRelatorioRepository.findByRelatorioId(relatorioId)
-                .orElseThrow(() -> new EntityNotFoundException("Avaliação não encontrada para o relatório com ID: " + relatorioId));
-        return convertToResponse(avaliacao);
+        return avaliacaoRelatorioRepository.findResponseByRelatorioId(relatorioId)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Avaliação não encontrada para o relatório com ID: " + relatorioId));
     }
 
     @Transactional
     public AvaliacaoRelatorioResponse atualizarAvaliacao(Integer id, AvaliacaoRelatorioRequest request) {
         AvaliacaoRelatorio avaliacao = avaliacaoRelatorioRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Avaliação de relatório não encontrada com ID: " + id));
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Avaliação de relatório não encontrada com ID: " + id));
 
         // Você pode adicionar uma verificação se o relatorioId na request é diferente do associado,
         // mas para um OneToOne com unique=true, geralmente não se muda o relatório associado após a criação.
         // Se precisar, adicione a lógica para atualizar o relatório, mas com cuidado para não quebrar a unicidade.
 
+        AvaliacaoResumoDTO anterior = resumo(avaliacao);
         avaliacao.setCargaHoraria(request.getCargaHoraria());
         avaliacao.setInteresseAtividades(request.getInteresseAtividades());
         avaliacao.setHabilidadesDesenvolvidas(request.getHabilidadesDesenvolvidas());
         avaliacao.setOutrasInformacoes(request.getOutrasInformacoes());
 
         AvaliacaoRelatorio updatedAvaliacao = avaliacaoRelatorioRepository.save(avaliacao);
+        eventPublisher.publishEvent(new AvaliacaoSalvaEvent(anterior, resumo(updatedAvaliacao)));
         return convertToResponse(updatedAvaliacao);
     }
 
     @Transactional
     public void deletarAvaliacao(Integer id) {
-        if (!avaliacaoRelatorioRepository.existsById(id)) {
-            throw new EntityNotFoundException("Avaliação de relatório não encontrada com ID: " + id);
-        }
+        AvaliacaoResumoDTO removida = avaliacaoRelatorioRepository.findResumoById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Avaliação de relatório não encontrada com ID: " + id));
         avaliacaoRelatorioRepository.deleteById(id);
+        eventPublisher.publishEvent(new AvaliacaoRemovidaEvent(removida));
     }
 
-    private AvaliacaoRelatorioResponse convertToResponse(AvaliacaoRelatorio avaliacao) {
+    private AvaliacaoResumoDTO resumo(AvaliacaoRelatorio avaliacao) {
+        Relatorio relatorio = avaliacao.getRelatorio();
+        return new AvaliacaoResumoDTO(
+                avaliacao.getId(),
+                relatorio.getId(),
+                relatorio.getAluno().getId(),
+                relatorio.getDataInicial(),
+                avaliacao.getCargaHoraria(),
+                avaliacao.getInteresseAtividades(),
+                avaliacao.getHabilidadesDesenvolvidas());
+    }
+
+    // Visível no pacote para os benchmarks JMH (src/jmh/java)
+    AvaliacaoRelatorioResponse convertToResponse(AvaliacaoRelatorio avaliacao) {
         AvaliacaoRelatorioResponse response = new AvaliacaoRelatorioResponse();
         response.setId(avaliacao.getId());
         response.setRelatorioId(avaliacao.getRelatorio().getId());
@@ -98,6 +256,15 @@ public class AvaliacaoRelatorioService {
         response.setOutrasInformacoes(avaliacao.getOutrasInformacoes());
         response.setCriadoEm(avaliacao.getCriadoEm());
         response.setAtualizadoEm(avaliacao.getAtualizadoEm());
+        response.setVersao(new VersaoDTO(avaliacao.getId(), avaliacao.getVersao(), avaliacao.getAtualizadoEm(),
+                avaliacao.getRelatorio().getAtualizadoEm()));
         return response;
     }
-}
\ No newline at end of file
+
+    // Cada lote roda em uma única transação, que precisa terminar dentro da margem da sincronização
+    private void validarTamanhoDoLote(List<?> itens) {
+        if (itens.size() > tamanhoMaximoLote) {
+            throw new ValidacaoException("O lote tem " + itens.size() + " itens; o máximo é " + tamanhoMaximoLote);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.controlpet.service;
+
+import com.controlpet.dto.AvaliacaoResumoDTO;
+import com.controlpet.dto.EstatisticaAvaliacaoDTO;
+import com.controlpet.dto.VerificacaoEstatisticasDTO;
+import com.controlpet.event.AvaliacaoRemovidaEvent;
+import com.controlpet.event.AvaliacaoSalvaEvent;
+import com.controlpet.infra.datasource.RoteamentoDataSource;
+import com.controlpet.model.enums.CriterioAvaliacao;
+import com.controlpet.repository.AvaliacaoRelatorioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Contadores de conceitos de avaliação por aluno e por período, mantidos em memória.
+ * São montados a partir do banco na inicialização e ajustados após o commit de cada
+ * criação, alteração ou exclusão de avaliação, de modo que a leitura não consulta o banco.
+ *
+ * Os eventos são deltas, então não dá para reaplicá-los sobre uma leitura do banco que talvez já
+ * os inclua. Durante a recarga, cada evento também registra o estado final da avaliação; na troca,
+ * a contribuição lida do banco para essas avaliações é substituída por esse estado. A recarga roda
+ * em REPEATABLE READ, então reler só essas avaliações na mesma transação devolve o que a leitura
+ * completa viu, sem guardar uma cópia de cada linha.
+ */
+@Service
+public class EstatisticasAvaliacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstatisticasAvaliacaoService.class);
+
+    private static final CriterioAvaliacao[] CRITERIOS = CriterioAvaliacao.values();
+
+    private final AvaliacaoRelatorioRepository avaliacaoRelatorioRepository;
+
+    // alunoId -> período -> contadores
+    private volatile Map<Integer, Map<String, Contadores>> contadores = new ConcurrentHashMap<>();
+    // avaliacaoId -> estado após o último evento recebido durante a recarga (null = removida); null fora dela
+    private Map<Integer, AvaliacaoResumoDTO> pendentes;
+    // Eventos e troca dos contadores; os eventos só esperam durante a troca (que relê apenas as avaliações
+    // alteradas durante a recarga), não durante a leitura completa do banco
+    private final Lock lock = new ReentrantLock();
+    private final Lock recarga = new ReentrantLock();
+
+    public EstatisticasAvaliacaoService(AvaliacaoRelatorioRepository avaliacaoRelatorioRepository) {
+        this.avaliacaoRelatorioRepository = avaliacaoRelatorioRepository;
+    }
+
+    // Período no formato "ano.semestre" (ex.: 2025.1), a partir da data inicial do relatório
+    public static String periodo(LocalDate dataInicialRelatorio) {
+        return dataInicialRelatorio.getYear() + "." + (dataInicialRelatorio.getMonthValue() <= 6 ? 1 : 2);
+    }
+
+    public List<EstatisticaAvaliacaoDTO> buscar(Integer alunoId, String periodo) {
+        Map<String, Contadores> porPeriodo = contadores.getOrDefault(alunoId, Map.of());
+        if (periodo != null) {
+            Contadores doPeriodo = porPeriodo.get(periodo);
+            return doPeriodo == null || doPeriodo.total() == 0 ? List.of() : List.of(doPeriodo.toDTO(alunoId, periodo));
+        }
+        return porPeriodo.entrySet().stream()
+                .filter(entrada -> entrada.getValue().total() > 0)
+                .sorted(Map.Entry.comparingByKey())
+                .map(entrada -> entrada.getValue().toDTO(alunoId, entrada.getKey()))
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void reconstruir() {
+        int alunos = recarregar((anteriores, novos) -> novos.size());
+        logger.info("Estatísticas de avaliação carregadas para {} alunos", alunos);
+    }
+
+    /**
+     * Recalcula os contadores a partir do banco, informa onde os valores em memória divergiam
+     * e passa a usar os valores recalculados.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public VerificacaoEstatisticasDTO verificar() {
+        return recarregar(this::comparar);
+    }
+
+    // Chamado durante a troca, quando os dois mapas refletem exatamente os mesmos eventos
+    private VerificacaoEstatisticasDTO comparar(Map<Integer, Map<String, Contadores>> atuais,
+                                                Map<Integer, Map<String, Contadores>> esperados) {
+        List<VerificacaoEstatisticasDTO.Divergencia> divergencias = new ArrayList<>();
+
+        Set<Integer> alunos = new HashSet<>(esperados.keySet());
+        alunos.addAll(atuais.keySet());
+        int grupos = 0;
+        for (Integer alunoId : alunos) {
+            Map<String, Contadores> esperadosDoAluno = esperados.getOrDefault(alunoId, Map.of());
+            Map<String, Contadores> atuaisDoAluno = atuais.getOrDefault(alunoId, Map.of());
+            Set<String> periodos = new HashSet<>(esperadosDoAluno.keySet());
+            periodos.addAll(atuaisDoAluno.keySet());
+            for (String periodo : periodos) {
+                grupos++;
+                Contadores esperado = esperadosDoAluno.getOrDefault(periodo, Contadores.VAZIO);
+                Contadores encontrado = atuaisDoAluno.getOrDefault(periodo, Contadores.VAZIO);
+                if (!esperado.equals(encontrado)) {
+                    divergencias.add(new VerificacaoEstatisticasDTO.Divergencia(alunoId, periodo,
+                            esperado.toDTO(alunoId, periodo), encontrado.toDTO(alunoId, periodo)));
+                }
+            }
+        }
+
+        if (!divergencias.isEmpty()) {
+            logger.warn("Estatísticas de avaliação divergentes em {} grupos; valores recalculados a partir do banco",
+                    divergencias.size());
+        }
+        divergencias.sort(Comparator.comparing(VerificacaoEstatisticasDTO.Divergencia::alunoId)
+                .thenComparing(VerificacaoEstatisticasDTO.Divergencia::periodo));
+        return new VerificacaoEstatisticasDTO(grupos, divergencias);
+    }
+
+    @TransactionalEventListener
+    public void onAvaliacaoSalva(AvaliacaoSalvaEvent event) {
+        lock.lock();
+        try {
+            if (event.anterior() != null) {
+                aplicar(contadores, event.anterior(), -1);
+            }
+            aplicar(contadores, event.atual(), 1);
+            if (pendentes != null) {
+                pendentes.put(event.atual().avaliacaoId(), event.atual());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onAvaliacaoRemovida(AvaliacaoRemovidaEvent event) {
+        lock.lock();
+        try {
+            aplicar(contadores, event.removida(), -1);
+            if (pendentes != null) {
+                pendentes.put(event.removida().avaliacaoId(), null);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lê todas as avaliações do banco, corrige as que mudaram durante a leitura e troca os contadores.
+     * {@code aoTrocar} recebe os contadores em uso e os recarregados enquanto os eventos estão bloqueados.
+     */
+    private <T> T recarregar(
+            BiFunction<Map<Integer, Map<String, Contadores>>, Map<Integer, Map<String, Contadores>>, T> aoTrocar) {
+        recarga.lock();
+        try {
+            lock.lock();
+            try {
+                pendentes = new HashMap<>();
+            } finally {
+                lock.unlock();
+            }
+
+            // Só os eventos confirmados depois daqui são reaplicados: uma réplica atrasada perderia os anteriores
+            RoteamentoDataSource.lerDoPrimario();
+            Map<Integer, Map<String, Contadores>> novos = new ConcurrentHashMap<>();
+            try (Stream<AvaliacaoResumoDTO> avaliacoes = avaliacaoRelatorioRepository.streamResumos()) {
+                avaliacoes.forEach(avaliacao -> aplicar(novos, avaliacao, 1));
+            } catch (RuntimeException e) {
+                lock.lock();
+                try {
+                    pendentes = null;
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            }
+
+            lock.lock();
+            try {
+                // Mesmo snapshot da leitura completa: o que ela contou para cada avaliação alterada
+                Map<Integer, AvaliacaoResumoDTO> lidas = new HashMap<>();
+                if (!pendentes.isEmpty()) {
+                    for (AvaliacaoResumoDTO lida : avaliacaoRelatorioRepository.findResumosByIds(pendentes.keySet())) {
+                        lidas.put(lida.avaliacaoId(), lida);
+                    }
+                }
+                pendentes.forEach((avaliacaoId, estadoFinal) -> {
+                    AvaliacaoResumoDTO lida = lidas.get(avaliacaoId);
+                    if (lida != null) {
+                        aplicar(novos, lida, -1);
+                    }
+                    if (estadoFinal != null) {
+                        aplicar(novos, estadoFinal, 1);
+                    }
+                });
+                T resultado = aoTrocar.apply(contadores, novos);
+                contadores = novos;
+                return resultado;
+            } finally {
+                pendentes = null;
+                lock.unlock();
+            }
+        } finally {
+            recarga.unlock();
+        }
+    }
+
+    private static void aplicar(Map<Integer, Map<String, Contadores>> destino, AvaliacaoResumoDTO avaliacao, int delta) {
+        destino.computeIfAbsent(avaliacao.alunoId(), id -> new ConcurrentHashMap<>())
+                .compute(periodo(avaliacao.dataInicialRelatorio()),
+                        (periodo, atual) -> (atual == null ? Contadores.VAZIO : atual).somar(avaliacao, delta));
+    }
+
+    /**
+     * Contagem imutável de conceitos: para cada critério (carga horária, interesse, habilidades),
+     * quantas avaliações receberam cada valor de {@link CriterioAvaliacao}.
+     */
+    private record Contadores(int total, int[] valores) {
+
+        static final Contadores VAZIO = new Contadores(0, new int[3 * CRITERIOS.length]);
+
+        Contadores somar(AvaliacaoResumoDTO avaliacao, int delta) {
+            int[] novos = valores.clone();
+            novos[avaliacao.cargaHoraria().ordinal()] += delta;
+            novos[CRITERIOS.length + avaliacao.interesseAtividades().ordinal()] += delta;
+            novos[2 * CRITERIOS.length + avaliacao.habilidadesDesenvolvidas().ordinal()] += delta;
+            return new Contadores(total + delta, novos);
+        }
+
+        EstatisticaAvaliacaoDTO toDTO(Integer alunoId, String periodo) {
+            return new EstatisticaAvaliacaoDTO(alunoId, periodo, total,
+                    distribuicao(0), distribuicao(1), distribuicao(2));
+        }
+
+        private Map<CriterioAvaliacao, Integer> distribuicao(int indiceCriterio) {
+            Map<CriterioAvaliacao, Integer> distribuicao = new EnumMap<>(CriterioAvaliacao.class);
+            for (CriterioAvaliacao criterio : CRITERIOS) {
+                distribuicao.put(criterio, valores[indiceCriterio * CRITERIOS.length + criterio.ordinal()]);
+            }
+            return distribuicao;
+        }
+
+        @Override
+        public boolean equals(Object outro) {
+            return outro instanceof Contadores contadores
+                    && total == contadores.total
+                    && Arrays.equals(valores, contadores.valores);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(total, Arrays.hashCode(valores));
+        }
+    }
+}
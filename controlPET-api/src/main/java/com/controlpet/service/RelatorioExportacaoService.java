@@ -0,0 +1,99 @@
+package com.controlpet.service;
+
+import com.controlpet.dto.RelatorioResponseDTO;
+import com.controlpet.repository.RelatorioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de relatórios escrita linha a linha direto na resposta HTTP.
+ * As linhas vêm de um cursor do banco, então o uso de memória não depende
+ * da quantidade de relatórios exportados.
+ */
+@Service
+public class RelatorioExportacaoService {
+
+    public enum Formato { ndjson, csv }
+
+    private static final String CABECALHO_CSV =
+            "id,tipoRelatorio,dataInicial,dataFinal,alunoId,alunoNome,resumoAtividades,comentarios";
+
+    private final RelatorioRepository relatorioRepository;
+    private final ObjectMapper objectMapper;
+
+    public RelatorioExportacaoService(RelatorioRepository relatorioRepository, ObjectMapper objectMapper) {
+        this.relatorioRepository = relatorioRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportar(Formato formato, Integer alunoId, LocalDate de, LocalDate ate, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        if (formato == Formato.csv) {
+            writer.write(CABECALHO_CSV);
+            writer.write('\n');
+        }
+
+        try (Stream<RelatorioResponseDTO> relatorios = consultar(alunoId, de, ate)) {
+            relatorios.forEach(relatorio -> {
+                try {
+                    writer.write(formato == Formato.csv ? linhaCsv(relatorio) : objectMapper.writeValueAsString(relatorio));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    // Escolhe a consulta pelos filtros informados, para que o filtro por aluno percorra só a faixa do índice
+    private Stream<RelatorioResponseDTO> consultar(Integer alunoId, LocalDate de, LocalDate ate) {
+        LocalDate inicio = de != null ? de : RelatorioService.PERIODO_MINIMO;
+        LocalDate fim = ate != null ? ate : RelatorioService.PERIODO_MAXIMO;
+        if (alunoId != null) {
+            return relatorioRepository.streamResponsesByAlunoAndPeriodo(alunoId, inicio, fim);
+        }
+        if (de != null || ate != null) {
+            return relatorioRepository.streamResponsesByPeriodo(inicio, fim);
+        }
+        return relatorioRepository.streamResponses();
+    }
+
+    private String linhaCsv(RelatorioResponseDTO relatorio) {
+        return String.join(",",
+                campoCsv(relatorio.getId()),
+                campoCsv(relatorio.getTipoRelatorio()),
+                campoCsv(relatorio.getDataInicial()),
+                campoCsv(relatorio.getDataFinal()),
+                campoCsv(relatorio.getAlunoId()),
+                campoCsv(relatorio.getAlunoNome()),
+                campoCsv(relatorio.getResumoAtividades()),
+                campoCsv(relatorio.getComentarios()));
+    }
+
+    // Escapa conforme RFC 4180: aspas duplicadas e campo entre aspas quando necessário
+    private String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.contains(",") || texto.contains("\"") || texto.contains("\n") || texto.contains("\r")) {
+            return "\"" + texto.replace("\"", "\"\"") + "\"";
+        }
+        return texto;
+    }
+}
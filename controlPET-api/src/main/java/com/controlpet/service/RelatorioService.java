@@ -1,16 +1,44 @@
 package com.controlpet.service;
 
+import com.controlpet.dto.AvaliacaoResumoDTO;
+import com.controlpet.dto.PaginaCursor;
+import com.controlpet.dto.RelatorioBuscaDTO;
 import com.controlpet.dto.RelatorioDTO;
+import com.controlpet.dto.RelatorioResponseDTO;
+import com.controlpet.dto.ResultadoItemLoteDTO;
+import com.controlpet.dto.ResultadoLoteDTO;
+import com.controlpet.dto.VersaoDTO;
+import com.controlpet.event.AvaliacaoRemovidaEvent;
+import com.controlpet.event.AvaliacaoSalvaEvent;
+import com.controlpet.event.RelatorioRemovidoEvent;
+import com.controlpet.event.RelatorioSalvoEvent;
+import com.controlpet.exception.RecursoNaoEncontradoException;
+import com.controlpet.exception.ValidacaoException;
+import com.controlpet.infra.search.IndiceRelatorios;
 import com.controlpet.model.Aluno;
 import com.controlpet.model.Relatorio;
 import com.controlpet.repository.AlunoRepository;
 import com.controlpet.repository.RelatorioRepository;
 import com.controlpet.repository.AvaliacaoRelatorioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class RelatorioService {
@@ -18,20 +46,125 @@ public class RelatorioService {
     private final RelatorioRepository relatorioRepository;
     private final AlunoRepository alunoRepository;
     private final AvaliacaoRelatorioRepository avaliacaoRelatorioRepository; // Injete este
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final int tamanhoLoteJdbc;
+    private final int tamanhoMaximoLote;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IndiceRelatorios indiceRelatorios;
+
+    public static final int LIMITE_BUSCA_MAXIMO = 100;
+
+    // Limites usados quando o período não é informado (LocalDate.MIN/MAX não cabem no tipo DATE do banco)
+    static final LocalDate PERIODO_MINIMO = LocalDate.of(1900, 1, 1);
+    static final LocalDate PERIODO_MAXIMO = LocalDate.of(9999, 12, 31);
 
     public RelatorioService(RelatorioRepository relatorioRepository,
                             AlunoRepository alunoRepository,
-                            AvaliacaoRelatorioRepository avaliacaoRelatorioRepository) { // Adicione ao construtor
+                            AvaliacaoRelatorioRepository avaliacaoRelatorioRepository, // Adicione ao construtor
+                            EntityManager entityManager,
+                            Validator validator,
+                            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int tamanhoLoteJdbc,
+                            @Value("${api.lote.tamanho-maximo:1000}") int tamanhoMaximoLote,
+                            ApplicationEventPublisher eventPublisher,
+                            IndiceRelatorios indiceRelatorios) {
         this.relatorioRepository = relatorioRepository;
         this.alunoRepository = alunoRepository;
         this.avaliacaoRelatorioRepository = avaliacaoRelatorioRepository; // Inicialize
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.tamanhoLoteJdbc = tamanhoLoteJdbc;
+        this.tamanhoMaximoLote = tamanhoMaximoLote;
+        this.eventPublisher = eventPublisher;
+        this.indiceRelatorios = indiceRelatorios;
     }
 
     @Transactional
     public Relatorio criarRelatorio(RelatorioDTO relatorioDTO) {
         Aluno aluno = alunoRepository.findById(relatorioDTO.alunoId())
-                .orElseThrow(() -> new IllegalArgumentException("Aluno não encontrado"));
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Aluno não encontrado"));
+
+        Relatorio relatorio = relatorioRepository.save(novoRelatorio(relatorioDTO, aluno));
+        publicarSalvo(relatorio, true);
+        return relatorio;
+    }
+
+    /**
+     * Importa vários relatórios em uma transação. Os alunos referenciados são conferidos
+     * em uma única consulta e os INSERTs são enviados em lotes JDBC de
+     * {@code hibernate.jdbc.batch_size}. Linhas inválidas são reportadas no resultado
+     * sem interromper as demais.
+     */
+    @Transactional
+    public ResultadoLoteDTO criarRelatoriosEmLote(List<RelatorioDTO> relatoriosDTO) {
+        validarTamanhoDoLote(relatoriosDTO);
+        Set<Integer> alunoIds = relatoriosDTO.stream()
+                .filter(Objects::nonNull)
+                .map(RelatorioDTO::alunoId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Integer> alunosExistentes = alunoIds.isEmpty() ? Set.of() : alunoRepository.findExistingIds(alunoIds);
+
+        List<ResultadoItemLoteDTO> resultados = new ArrayList<>(relatoriosDTO.size());
+        List<Relatorio> pendentes = new ArrayList<>(tamanhoLoteJdbc);
+        List<Integer> indicesPendentes = new ArrayList<>(tamanhoLoteJdbc);
+
+        for (int indice = 0; indice < relatoriosDTO.size(); indice++) {
+            RelatorioDTO dto = relatoriosDTO.get(indice);
+            String erro = validarLinha(dto, alunosExistentes);
+            if (erro != null) {
+                resultados.add(ResultadoItemLoteDTO.falha(indice, erro));
+                continue;
+            }
+
+            Relatorio relatorio = novoRelatorio(dto, alunoRepository.getReferenceById(dto.alunoId()));
+            entityManager.persist(relatorio);
+            pendentes.add(relatorio);
+            indicesPendentes.add(indice);
+            resultados.add(null); // preenchido quando o lote for gravado
+
+            if (pendentes.size() == tamanhoLoteJdbc) {
+                gravarLote(pendentes, indicesPendentes, resultados);
+            }
+        }
+        gravarLote(pendentes, indicesPendentes, resultados);
+
+        return ResultadoLoteDTO.de(resultados);
+    }
 
+    private String validarLinha(RelatorioDTO dto, Set<Integer> alunosExistentes) {
+        if (dto == null) {
+            return "Relatório vazio";
+        }
+        Set<ConstraintViolation<RelatorioDTO>> violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty()) {
+            return violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!alunosExistentes.contains(dto.alunoId())) {
+            return "Aluno não encontrado";
+        }
+        return null;
+    }
+
+    // Envia os INSERTs pendentes como um lote JDBC e libera as entidades do contexto de persistência
+    private void gravarLote(List<Relatorio> pendentes, List<Integer> indices, List<ResultadoItemLoteDTO> resultados) {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        for (int i = 0; i < pendentes.size(); i++) {
+            resultados.set(indices.get(i), ResultadoItemLoteDTO.sucesso(indices.get(i), pendentes.get(i).getId()));
+            publicarSalvo(pendentes.get(i), true);
+        }
+        entityManager.clear();
+        pendentes.clear();
+        indices.clear();
+    }
+
+    private Relatorio novoRelatorio(RelatorioDTO relatorioDTO, Aluno aluno) {
         Relatorio relatorio = new Relatorio();
         relatorio.setAluno(aluno);
         relatorio.setTipoRelatorio(relatorioDTO.tipoRelatorio() != null ? 
@@ -41,27 +174,85 @@ public class RelatorioService {
         relatorio.setDataEnvio(relatorioDTO.dataEnvio());
         relatorio.setResumoAtividades(relatorioDTO.resumoAtividades());
         relatorio.setComentarios(relatorioDTO.comentarios());
+        return relatorio;
+    }
 
-        return relatorioRepository.save(relatorio);
+    public PaginaCursor<RelatorioResponseDTO> listarPagina(String cursor, Integer tamanho) {
+        int tamanhoPagina = PaginaCursor.normalizarTamanho(tamanho);
+        var relatorios = relatorioRepository.findResponsesAfterId(
+                PaginaCursor.decodificarCursor(cursor), Limit.of(tamanhoPagina + 1));
+        return PaginaCursor.de(relatorios, tamanhoPagina, RelatorioResponseDTO::getId);
     }
 
-    public List<Relatorio> listarTodos() {
-        return relatorioRepository.findAll();
+    // Versões da mesma página de listarPagina, sem o conteúdo (para GET condicional)
+    public PaginaCursor<VersaoDTO> listarVersoes(String cursor, Integer tamanho) {
+        int tamanhoPagina = PaginaCursor.normalizarTamanho(tamanho);
+        var versoes = relatorioRepository.findVersoesAfterId(
+                PaginaCursor.decodificarCursor(cursor), Limit.of(tamanhoPagina + 1));
+        return PaginaCursor.de(versoes, tamanhoPagina, VersaoDTO::id);
     }
 
-    public Relatorio buscarPorId(Integer id) {
-        return relatorioRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Relatório não encontrado"));
+    /**
+     * Busca por conteúdo no resumo de atividades e nos comentários, usando o índice em memória.
+     * Os relatórios encontrados são carregados em uma única consulta e devolvidos por relevância.
+     */
+    public List<RelatorioBuscaDTO> buscarPorConteudo(String consulta, Integer limite) {
+        int limiteBusca = limite == null ? 20 : Math.min(Math.max(limite, 1), LIMITE_BUSCA_MAXIMO);
+        List<IndiceRelatorios.Resultado> resultados = indiceRelatorios.buscar(consulta, limiteBusca);
+        if (resultados.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, RelatorioResponseDTO> relatorios = relatorioRepository
+                .findResponsesByIds(resultados.stream().map(IndiceRelatorios.Resultado::relatorioId).toList())
+                .stream()
+                .collect(Collectors.toMap(RelatorioResponseDTO::getId, Function.identity()));
+
+        // Um relatório pode ter sido excluído entre a busca no índice e a consulta ao banco
+        return resultados.stream()
+                .filter(resultado -> relatorios.containsKey(resultado.relatorioId()))
+                .map(resultado -> new RelatorioBuscaDTO(resultado.pontuacao(), relatorios.get(resultado.relatorioId())))
+                .toList();
+    }
+
+    /**
+     * Relatórios do aluno cuja data inicial está entre {@code de} e {@code ate} (inclusive),
+     * em ordem cronológica. Sem limites informados, considera todo o histórico.
+     * Só quando não há nenhum relatório no período é preciso conferir se o aluno existe.
+     */
+    public List<RelatorioResponseDTO> listarPorAluno(Integer alunoId, LocalDate de, LocalDate ate) {
+        LocalDate inicio = de != null ? de : PERIODO_MINIMO;
+        LocalDate fim = ate != null ? ate : PERIODO_MAXIMO;
+        if (inicio.isAfter(fim)) {
+            throw new ValidacaoException("A data inicial do período não pode ser posterior à final");
+        }
+        List<RelatorioResponseDTO> relatorios = relatorioRepository.findResponsesByAlunoAndPeriodo(alunoId, inicio, fim);
+        if (relatorios.isEmpty() && !alunoRepository.existsById(alunoId)) {
+            throw new RecursoNaoEncontradoException("Aluno não encontrado");
+        }
+        return relatorios;
+    }
+
+    public VersaoDTO buscarVersao(Integer id) {
+        return relatorioRepository.findVersaoById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Relatório não encontrado"));
+    }
+
+    public RelatorioResponseDTO buscarPorId(Integer id) {
+        return relatorioRepository.findResponseById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Relatório não encontrado"));
     }
 
     @Transactional
     public Relatorio atualizarRelatorio(Integer id, RelatorioDTO relatorioDTO) {
         Relatorio relatorioExistente = relatorioRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Relatório não encontrado"));
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Relatório não encontrado"));
+        Integer alunoAnteriorId = relatorioExistente.getAluno().getId();
+        LocalDate dataInicialAnterior = relatorioExistente.getDataInicial();
 
         if (relatorioDTO.alunoId() != null) {
             Aluno aluno = alunoRepository.findById(relatorioDTO.alunoId())
-                    .orElseThrow(() -> new IllegalArgumentException("Aluno não encontrado"));
+                    .orElseThrow(() -> new RecursoNaoEncontradoException("Aluno não encontrado"));
             relatorioExistente.setAluno(aluno);
         }
 
@@ -75,19 +266,105 @@ public class RelatorioService {
         relatorioExistente.setResumoAtividades(relatorioDTO.resumoAtividades());
         relatorioExistente.setComentarios(relatorioDTO.comentarios());
 
-        return relatorioRepository.save(relatorioExistente);
+        Relatorio relatorioAtualizado = relatorioRepository.save(relatorioExistente);
+        publicarSalvo(relatorioAtualizado, false);
+
+        // Mudar o aluno ou a data do relatório move a avaliação para outro grupo nas estatísticas
+        if (!Objects.equals(alunoAnteriorId, relatorioAtualizado.getAluno().getId())
+                || !Objects.equals(dataInicialAnterior, relatorioAtualizado.getDataInicial())) {
+            avaliacaoRelatorioRepository.findResumoByRelatorioId(id).ifPresent(atual ->
+                    eventPublisher.publishEvent(new AvaliacaoSalvaEvent(
+                            atual.comRelatorio(alunoAnteriorId, dataInicialAnterior), atual)));
+        }
+        return relatorioAtualizado;
     }
 
     @Transactional
     public void deletarRelatorio(Integer id) {
-        if (!relatorioRepository.existsById(id)) {
-            throw new IllegalArgumentException("Relatório não encontrado");
+        if (removerRelatorios(List.of(id)).isEmpty()) {
+            throw new RecursoNaoEncontradoException("Relatório não encontrado");
         }
+    }
 
-        // NOVO PASSO: Primeiro, delete as avaliações de relatório associadas
-        avaliacaoRelatorioRepository.deleteByRelatorioId(id);
+    /**
+     * Exclui vários relatórios (e suas avaliações) de uma vez, com o mesmo número de comandos SQL
+     * qualquer que seja a quantidade. Ids inexistentes ou repetidos são reportados no resultado.
+     */
+    @Transactional
+    public ResultadoLoteDTO deletarRelatoriosEmLote(List<Integer> ids) {
+        validarTamanhoDoLote(ids);
+        Set<Integer> removidos = removerRelatorios(ids.stream().filter(Objects::nonNull).collect(Collectors.toSet()));
+
+        List<ResultadoItemLoteDTO> resultados = new ArrayList<>(ids.size());
+        Set<Integer> vistos = new HashSet<>();
+        for (int indice = 0; indice < ids.size(); indice++) {
+            Integer id = ids.get(indice);
+            if (id == null) {
+                resultados.add(ResultadoItemLoteDTO.falha(indice, "Id vazio"));
+            } else if (!vistos.add(id)) {
+                resultados.add(ResultadoItemLoteDTO.falha(indice, "Relatório repetido no lote"));
+            } else if (!removidos.contains(id)) {
+                resultados.add(ResultadoItemLoteDTO.falha(indice, "Relatório não encontrado"));
+            } else {
+                resultados.add(ResultadoItemLoteDTO.sucesso(indice, id));
+            }
+        }
+        return ResultadoLoteDTO.de(resultados);
+    }
 
-        // Em seguida, delete o relatório
-        relatorioRepository.deleteById(id);
+    /**
+     * Exclui todos os relatórios do aluno e as avaliações deles. São sempre quatro comandos
+     * (ids, resumos das avaliações e dois DELETEs), independentemente de quantos relatórios o aluno tem.
+     */
+    @Transactional
+    public int deletarRelatoriosDoAluno(Integer alunoId) {
+        List<Integer> relatorioIds = relatorioRepository.findIdsByAlunoId(alunoId);
+        if (relatorioIds.isEmpty()) {
+            return 0;
+        }
+        List<AvaliacaoResumoDTO> avaliacoes = avaliacaoRelatorioRepository.findResumosByAlunoId(alunoId);
+        avaliacaoRelatorioRepository.deleteByAlunoId(alunoId);
+        relatorioRepository.deleteByAlunoId(alunoId);
+        publicarRemovidos(relatorioIds, avaliacoes);
+        return relatorioIds.size();
+    }
+
+    // Exclusão em massa: as avaliações saem antes dos relatórios por causa da chave estrangeira
+    private Set<Integer> removerRelatorios(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        Set<Integer> existentes = relatorioRepository.findExistingIds(ids);
+        if (existentes.isEmpty()) {
+            return existentes;
+        }
+        List<AvaliacaoResumoDTO> avaliacoes = avaliacaoRelatorioRepository.findResumosByRelatorioIds(existentes);
+        avaliacaoRelatorioRepository.deleteByRelatorioIds(existentes);
+        relatorioRepository.deleteByIds(existentes);
+        publicarRemovidos(existentes, avaliacoes);
+        return existentes;
+    }
+
+    // Os registros de exclusão da sincronização são gravados pelos ouvintes em lotes JDBC no commit
+    private void publicarRemovidos(Collection<Integer> relatorioIds, List<AvaliacaoResumoDTO> avaliacoes) {
+        avaliacoes.forEach(avaliacao -> eventPublisher.publishEvent(new AvaliacaoRemovidaEvent(avaliacao)));
+        relatorioIds.forEach(id -> eventPublisher.publishEvent(new RelatorioRemovidoEvent(id)));
+    }
+
+    // Os ouvintes (ex.: índice de busca) são notificados somente após o commit
+    private void publicarSalvo(Relatorio relatorio, boolean novo) {
+        eventPublisher.publishEvent(new RelatorioSalvoEvent(
+                relatorio.getId(),
+                relatorio.getAluno().getId(),
+                relatorio.getResumoAtividades(),
+                relatorio.getComentarios(),
+                novo));
+    }
+
+    // Cada lote roda em uma única transação, que precisa terminar dentro da margem da sincronização
+    private void validarTamanhoDoLote(List<?> itens) {
+        if (itens.size() > tamanhoMaximoLote) {
+            throw new ValidacaoException("O lote tem " + itens.size() + " itens; o máximo é " + tamanhoMaximoLote);
+        }
     }
-}
\ No newline at end of file
+}
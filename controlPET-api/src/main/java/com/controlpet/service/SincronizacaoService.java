@@ -0,0 +1,197 @@
+package com.controlpet.service;
+
+import com.controlpet.dto.AvaliacaoRelatorioResponse;
+import com.controlpet.dto.PaginaCursor;
+import com.controlpet.dto.RelatorioResponseDTO;
+import com.controlpet.dto.RemocaoDTO;
+import com.controlpet.dto.SincronizacaoDTO;
+import com.controlpet.event.AvaliacaoRemovidaEvent;
+import com.controlpet.event.RelatorioRemovidoEvent;
+import com.controlpet.exception.CursorExpiradoException;
+import com.controlpet.exception.ValidacaoException;
+import com.controlpet.model.RegistroRemocao;
+import com.controlpet.model.enums.TipoRecurso;
+import com.controlpet.repository.AvaliacaoRelatorioRepository;
+import com.controlpet.repository.RegistroRemocaoRepository;
+import com.controlpet.repository.RelatorioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sincronização incremental de relatórios e avaliações: devolve o que foi criado, alterado ou
+ * excluído depois de um cursor, para o cliente manter uma cópia local sem recarregar as listas.
+ *
+ * As três fontes (relatórios, avaliações e registros de exclusão) são percorridas juntas na ordem
+ * (data, fonte, id); o cursor é a última posição entregue. Só entram alterações com data até
+ * "agora - margem", para que uma transação ainda não confirmada com data anterior não seja
+ * pulada. A data é preenchida ao gravar a linha, não no commit, então a margem precisa ser maior
+ * que a transação de escrita mais longa somada ao atraso da réplica; por isso os endpoints de
+ * lote têm tamanho máximo (api.lote.tamanho-maximo). Registros de exclusão mais antigos que a
+ * retenção são apagados, e cursores anteriores a ela são recusados (o cliente deve sincronizar
+ * do início).
+ */
+@Service
+public class SincronizacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SincronizacaoService.class);
+
+    private static final int FONTE_RELATORIOS = 0;
+    private static final int FONTE_AVALIACOES = 1;
+    private static final int FONTE_REMOCOES = 2;
+
+    private static final Posicao INICIO = new Posicao(LocalDateTime.of(1970, 1, 1, 0, 0), FONTE_RELATORIOS, -1);
+
+    private final RelatorioRepository relatorioRepository;
+    private final AvaliacaoRelatorioRepository avaliacaoRelatorioRepository;
+    private final RegistroRemocaoRepository registroRemocaoRepository;
+    private final Duration margem;
+    private final Duration retencao;
+
+    public SincronizacaoService(RelatorioRepository relatorioRepository,
+                                AvaliacaoRelatorioRepository avaliacaoRelatorioRepository,
+                                RegistroRemocaoRepository registroRemocaoRepository,
+                                @Value("${api.sincronizacao.margem:10s}") Duration margem,
+                                @Value("${api.sincronizacao.retencao:30d}") Duration retencao) {
+        this.relatorioRepository = relatorioRepository;
+        this.avaliacaoRelatorioRepository = avaliacaoRelatorioRepository;
+        this.registroRemocaoRepository = registroRemocaoRepository;
+        this.margem = margem;
+        this.retencao = retencao;
+    }
+
+    // Posição no fluxo de alterações: ordenado por data, depois pela fonte e pelo id dentro dela
+    private record Posicao(LocalDateTime data, int fonte, long id) implements Comparable<Posicao> {
+
+        private static final Comparator<Posicao> ORDEM = Comparator.comparing(Posicao::data)
+                .thenComparingInt(Posicao::fonte)
+                .thenComparingLong(Posicao::id);
+
+        static Posicao decodificar(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return INICIO;
+            }
+            try {
+                String[] partes = cursor.split("\\.");
+                long micros = Long.parseLong(partes[0]);
+                LocalDateTime data = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                        (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+                return new Posicao(data, Integer.parseInt(partes[1]), Long.parseLong(partes[2]));
+            } catch (RuntimeException e) {
+                throw new ValidacaoException("Cursor inválido");
+            }
+        }
+
+        String codificar() {
+            long micros = data.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + data.getNano() / 1000;
+            return micros + "." + fonte + "." + id;
+        }
+
+        // Id a partir do qual a fonte continua na data do cursor: fontes anteriores já foram entregues
+        // por completo nessa data, fontes posteriores ainda não começaram
+        long idApos(int outraFonte) {
+            if (outraFonte < fonte) {
+                return Long.MAX_VALUE;
+            }
+            return outraFonte == fonte ? id : -1;
+        }
+
+        int idIntApos(int outraFonte) {
+            return (int) Math.min(idApos(outraFonte), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public int compareTo(Posicao outra) {
+            return ORDEM.compare(this, outra);
+        }
+    }
+
+    private record Alteracao(Posicao posicao, Object item) {}
+
+    @Transactional(readOnly = true)
+    public SincronizacaoDTO buscarAlteracoes(String cursor, Integer tamanho) {
+        int tamanhoPagina = PaginaCursor.normalizarTamanho(tamanho);
+        Posicao desde = Posicao.decodificar(cursor);
+        LocalDateTime agora = LocalDateTime.now();
+        if (desde != INICIO && desde.data().isBefore(agora.minus(retencao))) {
+            throw new CursorExpiradoException("Cursor de sincronização expirado; sincronize a partir do início");
+        }
+        LocalDateTime ate = agora.minus(margem);
+        Limit limite = Limit.of(tamanhoPagina + 1);
+
+        // Cada fonte traz até tamanho + 1 itens; a página é formada pelos primeiros na ordem global
+        List<Alteracao> alteracoes = new ArrayList<>();
+        for (RelatorioResponseDTO relatorio : relatorioRepository.findAlteradosDesde(
+                desde.data(), desde.idIntApos(FONTE_RELATORIOS), ate, limite)) {
+            alteracoes.add(new Alteracao(new Posicao(relatorio.getVersao().atualizadoEm(), FONTE_RELATORIOS,
+                    relatorio.getId()), relatorio));
+        }
+        for (AvaliacaoRelatorioResponse avaliacao : avaliacaoRelatorioRepository.findAlteradasDesde(
+                desde.data(), desde.idIntApos(FONTE_AVALIACOES), ate, limite)) {
+            alteracoes.add(new Alteracao(new Posicao(avaliacao.getVersao().atualizadoEm(), FONTE_AVALIACOES,
+                    avaliacao.getId()), avaliacao));
+        }
+        for (RemocaoDTO remocao : registroRemocaoRepository.findRemovidosDesde(
+                desde.data(), desde.idApos(FONTE_REMOCOES), ate, limite)) {
+            alteracoes.add(new Alteracao(new Posicao(remocao.removidoEm(), FONTE_REMOCOES, remocao.registroId()), remocao));
+        }
+        alteracoes.sort(Comparator.comparing(Alteracao::posicao));
+
+        boolean completo = alteracoes.size() <= tamanhoPagina;
+        List<Alteracao> pagina = completo ? alteracoes : alteracoes.subList(0, tamanhoPagina);
+
+        List<RelatorioResponseDTO> relatorios = new ArrayList<>();
+        List<AvaliacaoRelatorioResponse> avaliacoes = new ArrayList<>();
+        List<RemocaoDTO> removidos = new ArrayList<>();
+        for (Alteracao alteracao : pagina) {
+            switch (alteracao.item()) {
+                case RelatorioResponseDTO relatorio -> relatorios.add(relatorio);
+                case AvaliacaoRelatorioResponse avaliacao -> avaliacoes.add(avaliacao);
+                case RemocaoDTO remocao -> removidos.add(remocao);
+                default -> throw new IllegalStateException("Alteração desconhecida: " + alteracao.item());
+            }
+        }
+
+        // Sem pendências, tudo até "ate" foi entregue: a próxima chamada começa depois dessa data
+        Posicao proxima = completo
+                ? max(desde, new Posicao(ate, FONTE_REMOCOES, Long.MAX_VALUE))
+                : pagina.get(pagina.size() - 1).posicao();
+        return new SincronizacaoDTO(relatorios, avaliacoes, removidos, proxima.codificar(), completo);
+    }
+
+    private static Posicao max(Posicao a, Posicao b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    // Ouvintes síncronos: o registro é gravado na mesma transação da exclusão
+    @EventListener
+    public void onRelatorioRemovido(RelatorioRemovidoEvent event) {
+        registroRemocaoRepository.save(new RegistroRemocao(TipoRecurso.relatorio, event.relatorioId()));
+    }
+
+    @EventListener
+    public void onAvaliacaoRemovida(AvaliacaoRemovidaEvent event) {
+        registroRemocaoRepository.save(new RegistroRemocao(TipoRecurso.avaliacao, event.removida().avaliacaoId()));
+    }
+
+    @Scheduled(cron = "${api.sincronizacao.limpeza-cron:0 30 3 * * *}")
+    @Transactional
+    public void removerRegistrosExpirados() {
+        int removidos = registroRemocaoRepository.deleteRemovidosAntesDe(LocalDateTime.now().minus(retencao));
+        if (removidos > 0) {
+            logger.info("{} registros de exclusão anteriores à retenção de {} apagados", removidos, retencao);
+        }
+    }
+}
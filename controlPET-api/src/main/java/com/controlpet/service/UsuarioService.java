@@ -1,36 +1,41 @@
 package com.controlpet.service;
 
 import com.controlpet.dto.UsuarioDTO;
+import com.controlpet.exception.ConflitoException;
+import com.controlpet.infra.security.PasswordHashingService;
 import com.controlpet.model.Usuario;
 import com.controlpet.model.enums.TipoUsuario;
 import com.controlpet.repository.AlunoRepository;
 import com.controlpet.repository.UsuarioRepository;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
     public UsuarioService(UsuarioRepository usuarioRepository, 
-                         PasswordEncoder passwordEncoder, AlunoRepository alunoRepository) {
+                         PasswordHashingService passwordHashingService, AlunoRepository alunoRepository) {
         this.usuarioRepository = usuarioRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
     }
 
-    public Usuario criarUsuario(UsuarioDTO usuarioDTO) {
+    // O hash é calculado no PasswordHashingService; a requisição não fica parada esperando por ele
+    public CompletableFuture<Usuario> criarUsuario(UsuarioDTO usuarioDTO) {
         if (usuarioRepository.existsByEmail(usuarioDTO.email())) {
-            throw new IllegalArgumentException("Email já cadastrado");
+            throw new ConflitoException("Email já cadastrado");
         }
 
-        Usuario usuario = new Usuario();
-        usuario.setNome(usuarioDTO.nome());
-        usuario.setEmail(usuarioDTO.email());
-        usuario.setSenhaHash(passwordEncoder.encode(usuarioDTO.senha()));
-        usuario.setTipo(TipoUsuario.aluno);
-        
-        return usuarioRepository.save(usuario);
+        return passwordHashingService.encode(usuarioDTO.senha()).thenApply(senhaHash -> {
+            Usuario usuario = new Usuario();
+            usuario.setNome(usuarioDTO.nome());
+            usuario.setEmail(usuarioDTO.email());
+            usuario.setSenhaHash(senhaHash);
+            usuario.setTipo(TipoUsuario.aluno);
+            return usuarioRepository.save(usuario);
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.controlpet;
+
+import com.controlpet.model.Aluno;
+import com.controlpet.model.AvaliacaoRelatorio;
+import com.controlpet.model.Relatorio;
+import com.controlpet.model.Usuario;
+import com.controlpet.model.enums.CriterioAvaliacao;
+import com.controlpet.model.enums.TipoEstudante;
+import com.controlpet.repository.AlunoRepository;
+import com.controlpet.repository.AvaliacaoRelatorioRepository;
+import com.controlpet.repository.RelatorioRepository;
+import com.controlpet.repository.UsuarioRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Grava alunos, relatórios e avaliações com valores padrão para os testes de integração.
+ * As variantes com {@code ajuste} alteram a entidade antes de gravá-la (ex.: datas, textos, atualizadoEm).
+ */
+@Component
+public class Fixtures {
+
+	private final UsuarioRepository usuarioRepository;
+	private final AlunoRepository alunoRepository;
+	private final RelatorioRepository relatorioRepository;
+	private final AvaliacaoRelatorioRepository avaliacaoRelatorioRepository;
+
+	public Fixtures(UsuarioRepository usuarioRepository,
+					AlunoRepository alunoRepository,
+					RelatorioRepository relatorioRepository,
+					AvaliacaoRelatorioRepository avaliacaoRelatorioRepository) {
+		this.usuarioRepository = usuarioRepository;
+		this.alunoRepository = alunoRepository;
+		this.relatorioRepository = relatorioRepository;
+		this.avaliacaoRelatorioRepository = avaliacaoRelatorioRepository;
+	}
+
+	public Aluno aluno(String nome) {
+		return aluno(nome, aluno -> {});
+	}
+
+	// Email único derivado do nome
+	public Aluno aluno(String nome, Consumer<Aluno> ajuste) {
+		Usuario usuario = new Usuario();
+		usuario.setNome(nome);
+		usuario.setEmail(nome.replaceAll("[^A-Za-z0-9]+", ".") + "-" + System.nanoTime() + "@controlpet.com");
+		usuario.setSenhaHash("hash");
+		usuarioRepository.save(usuario);
+
+		Aluno aluno = new Aluno();
+		aluno.setUsuario(usuario);
+		aluno.setIdade(20);
+		aluno.setPeriodoAno("2025.1");
+		aluno.setEditalIngresso("01/2025");
+		aluno.setTipoEstudante(TipoEstudante.bolsista);
+		aluno.setCurso("Ciência da Computação");
+		ajuste.accept(aluno);
+		return alunoRepository.save(aluno);
+	}
+
+	public Relatorio relatorio(Aluno aluno) {
+		return relatorio(aluno, relatorio -> {});
+	}
+
+	// Relatório de março de 2025 (período 2025.1)
+	public Relatorio relatorio(Aluno aluno, Consumer<Relatorio> ajuste) {
+		Relatorio relatorio = new Relatorio();
+		relatorio.setAluno(aluno);
+		relatorio.setDataInicial(LocalDate.of(2025, 3, 1));
+		relatorio.setDataFinal(LocalDate.of(2025, 3, 31));
+		relatorio.setResumoAtividades("Resumo das atividades");
+		relatorio.setComentarios("Comentários");
+		ajuste.accept(relatorio);
+		return relatorioRepository.save(relatorio);
+	}
+
+	public AvaliacaoRelatorio avaliacao(Relatorio relatorio) {
+		return avaliacao(relatorio, avaliacao -> {});
+	}
+
+	// Carga horária BOM, interesse OTIMO e habilidades REGULAR
+	public AvaliacaoRelatorio avaliacao(Relatorio relatorio, Consumer<AvaliacaoRelatorio> ajuste) {
+		AvaliacaoRelatorio avaliacao = new AvaliacaoRelatorio();
+		avaliacao.setRelatorio(relatorio);
+		avaliacao.setCargaHoraria(CriterioAvaliacao.BOM);
+		avaliacao.setInteresseAtividades(CriterioAvaliacao.OTIMO);
+		avaliacao.setHabilidadesDesenvolvidas(CriterioAvaliacao.REGULAR);
+		ajuste.accept(avaliacao);
+		return avaliacaoRelatorioRepository.save(avaliacao);
+	}
+}
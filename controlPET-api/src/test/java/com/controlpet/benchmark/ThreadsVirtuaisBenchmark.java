@@ -0,0 +1,215 @@
+package com.controlpet.benchmark;
+
+import com.controlpet.ControlPetApiApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a execução das requisições em threads de plataforma (pool do Tomcat) e em threads
+ * virtuais (perfil "virtual"), medindo vazão e latência p99 com alta concorrência.
+ *
+ * Não roda no build padrão. Para executar:
+ * <pre>
+ * mvn -Pbenchmark test -Dbenchmark.concorrencia=1000 -Dbenchmark.duracao=30
+ * </pre>
+ * Cada modo sobe a aplicação em uma porta aleatória com um H2 próprio, carrega a mesma massa
+ * de dados, aquece por {@code benchmark.aquecimento} segundos e mede por {@code benchmark.duracao}
+ * segundos. O resultado é impresso e gravado em target/benchmark/threads-virtuais.csv.
+ */
+@Tag("benchmark")
+class ThreadsVirtuaisBenchmark {
+
+	private static final int CONCORRENCIA = Integer.getInteger("benchmark.concorrencia", 1000);
+	private static final int AQUECIMENTO_S = Integer.getInteger("benchmark.aquecimento", 10);
+	private static final int DURACAO_S = Integer.getInteger("benchmark.duracao", 30);
+	private static final int RELATORIOS = Integer.getInteger("benchmark.relatorios", 500);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private record Resultado(String modo, long requisicoes, long erros, double vazao,
+							 double p50Ms, double p99Ms, double maxMs) {}
+
+	@Test
+	void compararThreadsDePlataformaEVirtuais() throws Exception {
+		List<Resultado> resultados = new ArrayList<>();
+		resultados.add(executar("plataforma", false));
+		resultados.add(executar("virtual", true));
+
+		StringBuilder csv = new StringBuilder("modo,concorrencia,requisicoes,erros,vazao_rps,p50_ms,p99_ms,max_ms\n");
+		System.out.printf("%n%-11s %12s %8s %12s %9s %9s %9s%n",
+				"modo", "requisicoes", "erros", "vazao(r/s)", "p50(ms)", "p99(ms)", "max(ms)");
+		for (Resultado r : resultados) {
+			System.out.printf("%-11s %12d %8d %12.1f %9.2f %9.2f %9.2f%n",
+					r.modo(), r.requisicoes(), r.erros(), r.vazao(), r.p50Ms(), r.p99Ms(), r.maxMs());
+			csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.2f,%.2f,%.2f%n",
+					r.modo(), CONCORRENCIA, r.requisicoes(), r.erros(), r.vazao(), r.p50Ms(), r.p99Ms(), r.maxMs()));
+		}
+		Path saida = Path.of("target", "benchmark", "threads-virtuais.csv");
+		Files.createDirectories(saida.getParent());
+		Files.writeString(saida, csv);
+
+		assertThat(resultados).allSatisfy(r -> assertThat(r.requisicoes()).isPositive());
+	}
+
+	private Resultado executar(String modo, boolean threadsVirtuais) throws Exception {
+		try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(ControlPetApiApplication.class)
+				.properties(
+						"server.port=0",
+						"spring.threads.virtual.enabled=" + threadsVirtuais,
+						"spring.datasource.url=jdbc:h2:mem:benchmark-" + modo,
+						"spring.jpa.show-sql=false",
+						"spring.devtools.restart.enabled=false",
+						"logging.level.root=WARN")
+				.run()) {
+			int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+			String base = "http://localhost:" + porta;
+			HttpClient cliente = HttpClient.newBuilder()
+					.executor(Executors.newVirtualThreadPerTaskExecutor())
+					.connectTimeout(Duration.ofSeconds(10))
+					.build();
+
+			String token = carregarDados(cliente, base);
+			List<URI> rotas = List.of(
+					URI.create(base + "/auth/me"),
+					URI.create(base + "/api/relatorios?tamanho=50"),
+					URI.create(base + "/api/relatorios/" + (1 + RELATORIOS / 2)),
+					URI.create(base + "/api/relatorios/busca?q=programacao&limite=20"),
+					URI.create(base + "/api/alunos?tamanho=50"));
+
+			medir(cliente, rotas, token, Duration.ofSeconds(AQUECIMENTO_S));
+			return resumir(modo, medir(cliente, rotas, token, Duration.ofSeconds(DURACAO_S)), DURACAO_S);
+		}
+	}
+
+	// Cada usuário simulado roda em uma thread virtual do cliente, para que o gargalo seja o servidor
+	private Medicao medir(HttpClient cliente, List<URI> rotas, String token, Duration duracao) throws Exception {
+		long fim = System.nanoTime() + duracao.toNanos();
+		AtomicLong erros = new AtomicLong();
+		List<Future<long[]>> usuarios = new ArrayList<>();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < CONCORRENCIA; i++) {
+				usuarios.add(executor.submit(() -> {
+					long[] latencias = new long[1024];
+					int total = 0;
+					while (System.nanoTime() < fim) {
+						URI rota = rotas.get(ThreadLocalRandom.current().nextInt(rotas.size()));
+						HttpRequest requisicao = HttpRequest.newBuilder(rota)
+								.header("Authorization", "Bearer " + token)
+								.timeout(Duration.ofSeconds(60))
+								.GET()
+								.build();
+						long inicio = System.nanoTime();
+						try {
+							HttpResponse<Void> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+							if (resposta.statusCode() != 200) {
+								erros.incrementAndGet();
+								continue;
+							}
+						} catch (IOException e) {
+							erros.incrementAndGet();
+							continue;
+						}
+						if (total == latencias.length) {
+							latencias = Arrays.copyOf(latencias, total * 2);
+						}
+						latencias[total++] = System.nanoTime() - inicio;
+					}
+					return Arrays.copyOf(latencias, total);
+				}));
+			}
+		}
+
+		List<long[]> porUsuario = new ArrayList<>();
+		for (Future<long[]> usuario : usuarios) {
+			porUsuario.add(usuario.get());
+		}
+		long[] todas = porUsuario.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+		return new Medicao(todas, erros.get());
+	}
+
+	private record Medicao(long[] latenciasOrdenadas, long erros) {}
+
+	private static Resultado resumir(String modo, Medicao medicao, int duracaoSegundos) {
+		long[] latencias = medicao.latenciasOrdenadas();
+		if (latencias.length == 0) {
+			return new Resultado(modo, 0, medicao.erros(), 0, 0, 0, 0);
+		}
+		return new Resultado(modo, latencias.length, medicao.erros(),
+				(double) latencias.length / duracaoSegundos,
+				percentil(latencias, 0.50), percentil(latencias, 0.99), latencias[latencias.length - 1] / 1e6);
+	}
+
+	private static double percentil(long[] ordenadas, double p) {
+		int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+		return ordenadas[Math.max(0, indice)] / 1e6;
+	}
+
+	// Registra um orientador, cria um aluno e os relatórios consultados durante a medição
+	private String carregarDados(HttpClient cliente, String base) throws Exception {
+		JsonNode registro = post(cliente, base + "/auth/register", null,
+				"{\"nome\":\"Benchmark\",\"email\":\"benchmark@controlpet.com\",\"senha\":\"123456\",\"tipo\":\"orientador\"}");
+		String token = registro.get("token").asText();
+
+		int usuarioId = get(cliente, base + "/auth/me", token).get("id").asInt();
+		int alunoId = post(cliente, base + "/api/alunos", token,
+				"{\"usuarioId\":" + usuarioId + ",\"idade\":20,\"periodoAno\":\"2025.1\",\"editalIngresso\":\"01/2025\","
+						+ "\"tipoEstudante\":\"bolsista\",\"curso\":\"Ciência da Computação\"}").get("id").asInt();
+
+		StringBuilder lote = new StringBuilder("[");
+		for (int i = 0; i < RELATORIOS; i++) {
+			lote.append(i == 0 ? "" : ",")
+					.append("{\"alunoId\":").append(alunoId)
+					.append(",\"dataInicial\":\"2025-03-01\",\"dataFinal\":\"2025-03-31\"")
+					.append(",\"resumoAtividades\":\"Estudo de programação e análise de dados, semana ").append(i).append("\"")
+					.append(",\"comentarios\":\"Sem observações\"}");
+		}
+		post(cliente, base + "/api/relatorios/lote", token, lote.append("]").toString());
+		return token;
+	}
+
+	private JsonNode get(HttpClient cliente, String url, String token) throws Exception {
+		HttpRequest requisicao = HttpRequest.newBuilder(URI.create(url))
+				.header("Authorization", "Bearer " + token)
+				.GET()
+				.build();
+		return objectMapper.readTree(cliente.send(requisicao, HttpResponse.BodyHandlers.ofString()).body());
+	}
+
+	private JsonNode post(HttpClient cliente, String url, String token, String corpo) throws Exception {
+		HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(url))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(corpo));
+		if (token != null) {
+			requisicao.header("Authorization", "Bearer " + token);
+		}
+		HttpResponse<String> resposta = cliente.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+		assertThat(resposta.statusCode()).as("POST %s: %s", url, resposta.body()).isBetween(200, 299);
+		return objectMapper.readTree(resposta.body());
+	}
+}
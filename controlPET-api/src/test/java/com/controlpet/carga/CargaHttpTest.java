@@ -0,0 +1,359 @@
+package com.controlpet.carga;
+
+import com.controlpet.infra.search.IndiceRelatorios;
+import com.controlpet.infra.security.TokenService;
+import com.controlpet.model.Aluno;
+import com.controlpet.model.AvaliacaoRelatorio;
+import com.controlpet.model.Relatorio;
+import com.controlpet.model.Usuario;
+import com.controlpet.model.enums.CriterioAvaliacao;
+import com.controlpet.model.enums.TipoEstudante;
+import com.controlpet.model.enums.TipoUsuario;
+import com.controlpet.repository.AlunoRepository;
+import com.controlpet.repository.AvaliacaoRelatorioRepository;
+import com.controlpet.repository.RelatorioRepository;
+import com.controlpet.repository.UsuarioRepository;
+import com.controlpet.service.EstatisticasAvaliacaoService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de carga HTTP de ponta a ponta: sobe a aplicação em uma porta aleatória com H2, carrega
+ * usuários, alunos, relatórios e avaliações e dispara tráfego misto em /auth/login,
+ * /api/relatorios, /api/alunos e /api/avaliacoes-relatorio.
+ *
+ * Não roda no build padrão. Para executar:
+ * <pre>
+ * mvn -Pcarga test -Dcarga.concorrencia=200 -Dcarga.duracao=60
+ * </pre>
+ * Para cada endpoint é impressa a vazão e os percentis p50/p95/p99/max; a distribuição completa
+ * de cada um é gravada em formato HdrHistogram (.hgrm, em ms) em target/carga/, junto com um
+ * resumo.csv. Opcionalmente {@code carga.p99MaximoMs} e {@code carga.taxaErroMaxima} fazem o
+ * teste falhar quando os limites são ultrapassados.
+ */
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:carga",
+		"spring.jpa.show-sql=false",
+		"logging.level.root=WARN"
+})
+class CargaHttpTest {
+
+	private static final int CONCORRENCIA = Integer.getInteger("carga.concorrencia", 50);
+	private static final int AQUECIMENTO_S = Integer.getInteger("carga.aquecimento", 10);
+	private static final int DURACAO_S = Integer.getInteger("carga.duracao", 60);
+	private static final int ALUNOS = Integer.getInteger("carga.alunos", 100);
+	private static final int RELATORIOS_POR_ALUNO = Integer.getInteger("carga.relatoriosPorAluno", 12);
+	private static final long P99_MAXIMO_MS = Long.getLong("carga.p99MaximoMs", 0);
+	private static final double TAXA_ERRO_MAXIMA = Double.parseDouble(System.getProperty("carga.taxaErroMaxima", "0.01"));
+
+	private static final String SENHA = "senha123";
+	private static final long MAIOR_LATENCIA_US = TimeUnit.MINUTES.toMicros(1);
+
+	@LocalServerPort
+	private int porta;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private AlunoRepository alunoRepository;
+
+	@Autowired
+	private RelatorioRepository relatorioRepository;
+
+	@Autowired
+	private AvaliacaoRelatorioRepository avaliacaoRelatorioRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private TokenService tokenService;
+
+	@Autowired
+	private IndiceRelatorios indiceRelatorios;
+
+	@Autowired
+	private EstatisticasAvaliacaoService estatisticasAvaliacaoService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final List<Usuario> usuarios = new ArrayList<>();
+	private final List<String> tokens = new ArrayList<>();
+	private final List<Integer> alunoIds = new ArrayList<>();
+	private final List<Integer> relatorioIds = new ArrayList<>();
+	private final List<Integer> avaliacaoIds = new ArrayList<>();
+
+	private HttpClient cliente;
+
+	/**
+	 * Um tipo de requisição do tráfego misto. O peso define a proporção em que é sorteado.
+	 */
+	private record Operacao(String nome, int peso, Function<CargaHttpTest, HttpRequest> requisicao) {}
+
+	private static final class Estatistica {
+		final Histogram latencias = new ConcurrentHistogram(MAIOR_LATENCIA_US, 3);
+		final LongAdder erros = new LongAdder();
+		final LongAdder rejeitadas = new LongAdder();
+	}
+
+	private final List<Operacao> operacoes = List.of(
+			new Operacao("POST /auth/login", 5, CargaHttpTest::login),
+			new Operacao("GET /api/relatorios", 20, t -> t.get("/api/relatorios?tamanho=50&cursor=" + t.cursorAleatorio(t.relatorioIds))),
+			new Operacao("GET /api/relatorios/{id}", 20, t -> t.get("/api/relatorios/" + t.aleatorio(t.relatorioIds))),
+			new Operacao("GET /api/relatorios/busca", 5, t -> t.get("/api/relatorios/busca?q=programacao+reuniao&limite=20")),
+			new Operacao("POST /api/relatorios", 5, CargaHttpTest::criarRelatorio),
+			new Operacao("GET /api/alunos", 10, t -> t.get("/api/alunos?tamanho=50&cursor=" + t.cursorAleatorio(t.alunoIds))),
+			new Operacao("GET /api/alunos/{id}", 10, t -> t.get("/api/alunos/" + t.aleatorio(t.alunoIds))),
+			new Operacao("GET /api/avaliacoes-relatorio", 10, t -> t.get("/api/avaliacoes-relatorio?tamanho=50&cursor=" + t.cursorAleatorio(t.avaliacaoIds))),
+			new Operacao("GET /api/avaliacoes-relatorio/{id}", 10, t -> t.get("/api/avaliacoes-relatorio/" + t.aleatorio(t.avaliacaoIds)))
+	);
+
+	@Test
+	void trafegoMisto() throws Exception {
+		carregarDados();
+		cliente = HttpClient.newBuilder()
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.connectTimeout(Duration.ofSeconds(10))
+				.build();
+
+		executar(Duration.ofSeconds(AQUECIMENTO_S));
+		Map<String, Estatistica> resultado = executar(Duration.ofSeconds(DURACAO_S));
+
+		Histogram total = new Histogram(MAIOR_LATENCIA_US, 3);
+		long erros = 0;
+		for (Estatistica estatistica : resultado.values()) {
+			total.add(estatistica.latencias);
+			erros += estatistica.erros.sum();
+		}
+		relatar(resultado, total);
+
+		assertThat(total.getTotalCount()).as("requisições concluídas").isPositive();
+		assertThat((double) erros / (total.getTotalCount() + erros)).as("taxa de erro").isLessThanOrEqualTo(TAXA_ERRO_MAXIMA);
+		if (P99_MAXIMO_MS > 0) {
+			assertThat(total.getValueAtPercentile(99) / 1000.0).as("p99 geral (ms)").isLessThanOrEqualTo(P99_MAXIMO_MS);
+		}
+	}
+
+	// Cada usuário simulado roda em uma thread virtual e sorteia as operações pelo peso
+	private Map<String, Estatistica> executar(Duration duracao) throws InterruptedException {
+		Map<String, Estatistica> estatisticas = new LinkedHashMap<>();
+		operacoes.forEach(operacao -> estatisticas.put(operacao.nome(), new Estatistica()));
+		int pesoTotal = operacoes.stream().mapToInt(Operacao::peso).sum();
+		long fim = System.nanoTime() + duracao.toNanos();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < CONCORRENCIA; i++) {
+				executor.submit(() -> {
+					while (System.nanoTime() < fim) {
+						Operacao operacao = sortear(pesoTotal);
+						Estatistica estatistica = estatisticas.get(operacao.nome());
+						HttpRequest requisicao = operacao.requisicao().apply(this);
+						long inicio = System.nanoTime();
+						try {
+							int status = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+							long microssegundos = (System.nanoTime() - inicio) / 1000;
+							if (status == 429) {
+								estatistica.rejeitadas.increment();
+							} else if (status >= 400) {
+								estatistica.erros.increment();
+							} else {
+								estatistica.latencias.recordValue(Math.min(microssegundos, MAIOR_LATENCIA_US));
+							}
+						} catch (IOException e) {
+							estatistica.erros.increment();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+							return;
+						}
+					}
+				});
+			}
+		}
+		return estatisticas;
+	}
+
+	private void relatar(Map<String, Estatistica> resultado, Histogram total) throws IOException {
+		Path diretorio = Path.of("target", "carga");
+		Files.createDirectories(diretorio);
+		StringBuilder csv = new StringBuilder("endpoint,requisicoes,erros,rejeitadas_429,vazao_rps,p50_ms,p95_ms,p99_ms,max_ms\n");
+
+		System.out.printf("%nConcorrência %d, %d s de medição%n", CONCORRENCIA, DURACAO_S);
+		System.out.printf("%-36s %9s %7s %7s %10s %9s %9s %9s %9s%n",
+				"endpoint", "reqs", "erros", "429", "req/s", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)");
+		for (Map.Entry<String, Estatistica> entrada : resultado.entrySet()) {
+			Estatistica estatistica = entrada.getValue();
+			linha(csv, entrada.getKey(), estatistica.latencias, estatistica.erros.sum(), estatistica.rejeitadas.sum());
+			gravarHistograma(diretorio, entrada.getKey(), estatistica.latencias);
+		}
+		long erros = resultado.values().stream().mapToLong(e -> e.erros.sum()).sum();
+		long rejeitadas = resultado.values().stream().mapToLong(e -> e.rejeitadas.sum()).sum();
+		linha(csv, "TOTAL", total, erros, rejeitadas);
+		gravarHistograma(diretorio, "TOTAL", total);
+		Files.writeString(diretorio.resolve("resumo.csv"), csv);
+	}
+
+	private static void linha(StringBuilder csv, String nome, Histogram h, long erros, long rejeitadas) {
+		double vazao = (double) h.getTotalCount() / DURACAO_S;
+		System.out.printf("%-36s %9d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", nome, h.getTotalCount(), erros, rejeitadas,
+				vazao, ms(h, 50), ms(h, 95), ms(h, 99), h.getMaxValue() / 1000.0);
+		csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f%n", nome, h.getTotalCount(), erros,
+				rejeitadas, vazao, ms(h, 50), ms(h, 95), ms(h, 99), h.getMaxValue() / 1000.0));
+	}
+
+	private static double ms(Histogram histograma, double percentil) {
+		return histograma.getValueAtPercentile(percentil) / 1000.0;
+	}
+
+	private static void gravarHistograma(Path diretorio, String nome, Histogram histograma) throws IOException {
+		String arquivo = nome.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+		try (PrintStream saida = new PrintStream(Files.newOutputStream(diretorio.resolve(arquivo)))) {
+			histograma.outputPercentileDistribution(saida, 1000.0);
+		}
+	}
+
+	private Operacao sortear(int pesoTotal) {
+		int sorteio = ThreadLocalRandom.current().nextInt(pesoTotal);
+		for (Operacao operacao : operacoes) {
+			sorteio -= operacao.peso();
+			if (sorteio < 0) {
+				return operacao;
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	private HttpRequest get(String caminho) {
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho))
+				.header("Authorization", "Bearer " + aleatorio(tokens))
+				.timeout(Duration.ofSeconds(60))
+				.GET()
+				.build();
+	}
+
+	private HttpRequest login() {
+		Usuario usuario = aleatorio(usuarios);
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/auth/login"))
+				.header("Content-Type", "application/json")
+				.timeout(Duration.ofSeconds(60))
+				.POST(HttpRequest.BodyPublishers.ofString(
+						"{\"email\":\"" + usuario.getEmail() + "\",\"senha\":\"" + SENHA + "\"}"))
+				.build();
+	}
+
+	private HttpRequest criarRelatorio() {
+		String corpo = "{\"alunoId\":" + aleatorio(alunoIds)
+				+ ",\"dataInicial\":\"2025-09-01\",\"dataFinal\":\"2025-09-30\""
+				+ ",\"resumoAtividades\":\"Reunião do grupo e estudo de programação\",\"comentarios\":\"Gerado no teste de carga\"}";
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/relatorios"))
+				.header("Authorization", "Bearer " + aleatorio(tokens))
+				.header("Content-Type", "application/json")
+				.timeout(Duration.ofSeconds(60))
+				.POST(HttpRequest.BodyPublishers.ofString(corpo))
+				.build();
+	}
+
+	private static <T> T aleatorio(List<T> valores) {
+		return valores.get(ThreadLocalRandom.current().nextInt(valores.size()));
+	}
+
+	// Cursor de uma página qualquer da listagem (o cursor é o último id da página anterior)
+	private String cursorAleatorio(List<Integer> ids) {
+		return String.valueOf(aleatorio(ids) - 1);
+	}
+
+	/**
+	 * Massa de dados: um orientador e {@code carga.alunos} alunos (todos com a mesma senha), cada
+	 * aluno com {@code carga.relatoriosPorAluno} relatórios mensais, dois terços deles avaliados.
+	 */
+	private void carregarDados() {
+		String senhaHash = passwordEncoder.encode(SENHA);
+		CriterioAvaliacao[] criterios = CriterioAvaliacao.values();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			usuarios.add(usuarioRepository.save(usuario("orientador", TipoUsuario.orientador, senhaHash)));
+			for (int i = 0; i < ALUNOS; i++) {
+				Usuario usuario = usuarioRepository.save(usuario("aluno" + i, TipoUsuario.aluno, senhaHash));
+				usuarios.add(usuario);
+
+				Aluno aluno = new Aluno();
+				aluno.setUsuario(usuario);
+				aluno.setIdade(18 + i % 10);
+				aluno.setPeriodoAno("2025." + (1 + i % 2));
+				aluno.setEditalIngresso("0" + (1 + i % 3) + "/2025");
+				aluno.setTipoEstudante(i % 4 == 0 ? TipoEstudante.voluntario : TipoEstudante.bolsista);
+				aluno.setCurso(i % 2 == 0 ? "Ciência da Computação" : "Sistemas de Informação");
+				alunoIds.add(alunoRepository.save(aluno).getId());
+
+				for (int mes = 1; mes <= RELATORIOS_POR_ALUNO; mes++) {
+					LocalDate inicio = LocalDate.of(2025, 1, 1).plusMonths(mes - 1);
+					Relatorio relatorio = new Relatorio();
+					relatorio.setAluno(aluno);
+					relatorio.setDataInicial(inicio);
+					relatorio.setDataFinal(inicio.plusMonths(1).minusDays(1));
+					relatorio.setResumoAtividades("Reunião semanal do grupo, estudo de programação e apoio à monitoria "
+							+ "(mês " + mes + ")");
+					relatorio.setComentarios("Atividades concluídas dentro do prazo");
+					relatorio = relatorioRepository.save(relatorio);
+					relatorioIds.add(relatorio.getId());
+
+					if (mes % 3 != 0) {
+						AvaliacaoRelatorio avaliacao = new AvaliacaoRelatorio();
+						avaliacao.setRelatorio(relatorio);
+						avaliacao.setCargaHoraria(criterios[(i + mes) % criterios.length]);
+						avaliacao.setInteresseAtividades(criterios[(i + 2 * mes) % criterios.length]);
+						avaliacao.setHabilidadesDesenvolvidas(criterios[(i * mes) % criterios.length]);
+						avaliacaoIds.add(avaliacaoRelatorioRepository.save(avaliacao).getId());
+					}
+				}
+			}
+		});
+
+		usuarios.forEach(usuario -> tokens.add(tokenService.generateToken(usuario)));
+		// A massa foi gravada direto pelos repositórios, sem os eventos que mantêm índice e estatísticas
+		indiceRelatorios.reconstruir();
+		estatisticasAvaliacaoService.reconstruir();
+	}
+
+	private static Usuario usuario(String nome, TipoUsuario tipo, String senhaHash) {
+		Usuario usuario = new Usuario();
+		usuario.setNome(nome);
+		usuario.setEmail(nome + "@controlpet.com");
+		usuario.setSenhaHash(senhaHash);
+		usuario.setTipo(tipo);
+		return usuario;
+	}
+}
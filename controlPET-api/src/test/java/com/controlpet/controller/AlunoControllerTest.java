@@ -0,0 +1,92 @@
+package com.controlpet.controller;
+
+import com.controlpet.Fixtures;
+import com.controlpet.infra.sql.OrcamentoSql;
+import com.controlpet.model.enums.TipoEstudante;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+@Transactional
+class AlunoControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private Fixtures fixtures;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@BeforeEach
+	void setUp() {
+		criarAluno("Ana Souza", "Engenharia Elétrica", TipoEstudante.bolsista, "2025.1");
+		criarAluno("Bruno Lima", "Engenharia Elétrica", TipoEstudante.voluntario, "2025.1");
+		criarAluno("Carla Anastácio", "Engenharia Elétrica", TipoEstudante.bolsista, "2025.1");
+		criarAluno("Denise Rocha", "Engenharia Elétrica", TipoEstudante.bolsista, "2024.2");
+		criarAluno("Mariana Costa", "Física", TipoEstudante.bolsista, "2025.1");
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void buscarAlunosCombinaFiltrosEmUmaUnicaConsulta() throws Exception {
+		mockMvc.perform(get("/api/alunos/busca")
+						.param("curso", "Engenharia Elétrica")
+						.param("tipoEstudante", "bolsista")
+						.param("periodoAno", "2025.1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.itens.length()").value(2))
+				.andExpect(jsonPath("$.itens[0].usuario.nome").value("Ana Souza"))
+				.andExpect(jsonPath("$.itens[1].usuario.nome").value("Carla Anastácio"))
+				.andExpect(OrcamentoSql.noMaximo(1));
+	}
+
+	@Test
+	void buscarAlunosPorNomePaginaPeloCursor() throws Exception {
+		String resposta = mockMvc.perform(get("/api/alunos/busca")
+						.param("nome", "ANA")
+						.param("tamanho", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.itens.length()").value(2))
+				.andExpect(jsonPath("$.itens[0].usuario.nome").value("Ana Souza"))
+				.andExpect(jsonPath("$.itens[1].usuario.nome").value("Carla Anastácio"))
+				.andExpect(OrcamentoSql.noMaximo(1))
+				.andReturn().getResponse().getContentAsString();
+		String cursor = JsonPath.read(resposta, "$.proximoCursor");
+		assertThat(cursor).isNotNull();
+
+		mockMvc.perform(get("/api/alunos/busca")
+						.param("nome", "ANA")
+						.param("tamanho", "2")
+						.param("cursor", cursor))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.itens.length()").value(1))
+				.andExpect(jsonPath("$.itens[0].usuario.nome").value("Mariana Costa"))
+				.andExpect(jsonPath("$.proximoCursor").doesNotExist());
+	}
+
+	private void criarAluno(String nome, String curso, TipoEstudante tipoEstudante, String periodoAno) {
+		fixtures.aluno(nome, aluno -> {
+			aluno.setCurso(curso);
+			aluno.setTipoEstudante(tipoEstudante);
+			aluno.setPeriodoAno(periodoAno);
+		});
+	}
+}
@@ -0,0 +1,187 @@
+package com.controlpet.controller;
+
+import com.controlpet.Fixtures;
+import com.controlpet.infra.sql.OrcamentoSql;
+import com.controlpet.model.Aluno;
+import com.controlpet.model.AvaliacaoRelatorio;
+import com.controlpet.repository.AvaliacaoRelatorioRepository;
+import com.controlpet.service.EstatisticasAvaliacaoService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+@Transactional
+class AvaliacaoRelatorioControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private Fixtures fixtures;
+
+	@Autowired
+	private AvaliacaoRelatorioRepository avaliacaoRelatorioRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EstatisticasAvaliacaoService estatisticasAvaliacaoService;
+
+	private Integer primeiraAvaliacaoId;
+	private Aluno aluno;
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < 3; i++) {
+			aluno = fixtures.aluno("avaliado" + i);
+			for (int j = 0; j < 2; j++) {
+				AvaliacaoRelatorio avaliacao = fixtures.avaliacao(fixtures.relatorio(aluno));
+				if (primeiraAvaliacaoId == null) {
+					primeiraAvaliacaoId = avaliacao.getId();
+				}
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void listarAvaliacoesExecutaUmaUnicaConsulta() throws Exception {
+		mockMvc.perform(get("/api/avaliacoes-relatorio").param("tamanho", "200"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.itens[0].tipoRelatorio").exists())
+				.andExpect(OrcamentoSql.noMaximo(1));
+	}
+
+	@Test
+	void buscarAvaliacaoPorIdExecutaUmaUnicaConsulta() throws Exception {
+		mockMvc.perform(get("/api/avaliacoes-relatorio/{id}", primeiraAvaliacaoId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.cargaHoraria").value("BOM"))
+				.andExpect(OrcamentoSql.noMaximo(1));
+	}
+
+	@Test
+	void buscarAvaliacaoInexistenteRespondeNaoEncontradoComProblemDetail() throws Exception {
+		mockMvc.perform(get("/api/avaliacoes-relatorio/{id}", Integer.MAX_VALUE))
+				.andExpect(status().isNotFound())
+				.andExpect(content().contentType("application/problem+json"))
+				.andExpect(jsonPath("$.status").value(404))
+				.andExpect(jsonPath("$.detail").value("Avaliação de relatório não encontrada com ID: " + Integer.MAX_VALUE));
+	}
+
+	@Test
+	void idNaoNumericoRespondeRequisicaoInvalida() throws Exception {
+		mockMvc.perform(get("/api/avaliacoes-relatorio/{id}", "abc"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().contentType("application/problem+json"))
+				.andExpect(jsonPath("$.detail").value("Valor inválido para o parâmetro 'id'"));
+	}
+
+	@Test
+	void corpoMalformadoRespondeRequisicaoInvalida() throws Exception {
+		mockMvc.perform(post("/api/avaliacoes-relatorio/lote").contentType("application/json").content("[{\"relatorioId\":"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().contentType("application/problem+json"))
+				.andExpect(jsonPath("$.detail").value("Corpo da requisição inválido"));
+
+		mockMvc.perform(post("/api/avaliacoes-relatorio/lote").contentType("application/json").content("[" + item(1).replace("\"BOM\"", "\"PESSIMO\"") + "]"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.detail").value("Corpo da requisição inválido"));
+	}
+
+	@Test
+	void avaliarEmLoteUsaPoucasConsultasEReportaCadaItem() throws Exception {
+		List<Integer> relatorioIds = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			relatorioIds.add(fixtures.relatorio(aluno).getId());
+		}
+		Integer jaAvaliado = avaliacaoRelatorioRepository.findById(primeiraAvaliacaoId).orElseThrow().getRelatorio().getId();
+		entityManager.flush();
+		entityManager.clear();
+
+		StringBuilder lote = new StringBuilder("[");
+		for (Integer relatorioId : relatorioIds) {
+			lote.append(item(relatorioId)).append(',');
+		}
+		// Repetido no próprio lote, já avaliado antes e inexistente
+		lote.append(item(relatorioIds.get(0))).append(',')
+				.append(item(jaAvaliado)).append(',')
+				.append(item(-1)).append(']');
+
+		mockMvc.perform(post("/api/avaliacoes-relatorio/lote").contentType("application/json").content(lote.toString()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.sucessos").value(10))
+				.andExpect(jsonPath("$.falhas").value(3))
+				.andExpect(jsonPath("$.itens[9].id").exists())
+				.andExpect(jsonPath("$.itens[10].erro").value("Já existe uma avaliação para o relatório com ID: " + relatorioIds.get(0)))
+				.andExpect(jsonPath("$.itens[11].erro").value("Já existe uma avaliação para o relatório com ID: " + jaAvaliado))
+				.andExpect(jsonPath("$.itens[12].erro").value("Relatório não encontrado com ID: -1"))
+				// relatórios (IN), avaliações existentes (IN), sequence e um lote de INSERTs
+				.andExpect(OrcamentoSql.noMaximo(4));
+
+		assertThat(avaliacaoRelatorioRepository.findRelatorioIdsAvaliados(relatorioIds)).hasSize(10);
+	}
+
+	@Test
+	void loteAcimaDoTamanhoMaximoERecusado() throws Exception {
+		mockMvc.perform(post("/api/avaliacoes-relatorio/lote").contentType("application/json").content("[" + "{},".repeat(1000) + "{}]"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.detail").value("O lote tem 1001 itens; o máximo é 1000"));
+	}
+
+	@Test
+	void verificacaoRecalculaEstatisticasAPartirDoBanco() throws Exception {
+		// As avaliações do setUp não passaram por commit, então os contadores em memória não as conhecem
+		mockMvc.perform(post("/api/avaliacoes-relatorio/estatisticas/verificacao"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.divergencias[?(@.alunoId == %d)].esperado.totalAvaliacoes", aluno.getId()).value(2))
+				.andExpect(jsonPath("$.divergencias[?(@.alunoId == %d)].encontrado.totalAvaliacoes", aluno.getId()).value(0))
+				.andExpect(OrcamentoSql.noMaximo(1));
+
+		mockMvc.perform(get("/api/avaliacoes-relatorio/estatisticas").param("alunoId", aluno.getId().toString()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].periodo").value("2025.1"))
+				.andExpect(jsonPath("$[0].totalAvaliacoes").value(2))
+				.andExpect(jsonPath("$[0].cargaHoraria.BOM").value(2))
+				.andExpect(jsonPath("$[0].habilidadesDesenvolvidas.REGULAR").value(2))
+				.andExpect(OrcamentoSql.noMaximo(0));
+
+		mockMvc.perform(post("/api/avaliacoes-relatorio/estatisticas/verificacao"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.divergencias.length()").value(0));
+	}
+
+	// A verificação carrega nos contadores as avaliações que o rollback desfaz
+	@AfterTransaction
+	void recarregarEstatisticas() {
+		estatisticasAvaliacaoService.reconstruir();
+	}
+
+	private static String item(Integer relatorioId) {
+		return "{\"relatorioId\":" + relatorioId
+				+ ",\"cargaHoraria\":\"BOM\",\"interesseAtividades\":\"OTIMO\",\"habilidadesDesenvolvidas\":\"BOM\"}";
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.controlpet.controller;
+
+import com.controlpet.infra.security.TokenService;
+import com.controlpet.model.Usuario;
+import com.controlpet.model.enums.TipoUsuario;
+import com.controlpet.repository.UsuarioRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class EventoControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private TokenService tokenService;
+
+	private String token;
+
+	@BeforeEach
+	void setUp() {
+		Usuario usuario = new Usuario();
+		usuario.setNome("Orientador");
+		usuario.setEmail("orientador-" + System.nanoTime() + "@controlpet.com");
+		usuario.setSenhaHash("hash");
+		usuario.setTipo(TipoUsuario.orientador);
+		usuarioRepository.save(usuario);
+		token = tokenService.generateToken(usuario);
+	}
+
+	@Test
+	void streamAceitaTicketApenasUmaVez() throws Exception {
+		String resposta = mockMvc.perform(post("/api/eventos/ticket")
+						.header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.validadeSegundos").value(30))
+				.andReturn().getResponse().getContentAsString();
+		String ticket = JsonPath.read(resposta, "$.ticket");
+
+		mockMvc.perform(get("/api/eventos").param("ticket", ticket).accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(request().asyncStarted());
+
+		mockMvc.perform(get("/api/eventos").param("ticket", ticket).accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void streamNaoAceitaJwtNaUrl() throws Exception {
+		mockMvc.perform(get("/api/eventos").param("token", token).accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/api/eventos").param("ticket", token).accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void ticketSoValeParaOStream() throws Exception {
+		String resposta = mockMvc.perform(post("/api/eventos/ticket")
+						.header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		String ticket = JsonPath.read(resposta, "$.ticket");
+
+		mockMvc.perform(get("/api/alunos").param("ticket", ticket))
+				.andExpect(status().isForbidden());
+	}
+}
@@ -0,0 +1,356 @@
+package com.controlpet.controller;
+
+import com.controlpet.Fixtures;
+import com.controlpet.infra.search.IndiceRelatorios;
+import com.controlpet.infra.sql.CapturaSql;
+import com.controlpet.infra.sql.OrcamentoSql;
+import com.controlpet.model.Aluno;
+import com.controlpet.model.Relatorio;
+import com.controlpet.repository.AlunoRepository;
+import com.controlpet.repository.AvaliacaoRelatorioRepository;
+import com.controlpet.repository.RegistroRemocaoRepository;
+import com.controlpet.repository.RelatorioRepository;
+import jakarta.persistence.EntityManager;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+@Transactional
+class RelatorioControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private Fixtures fixtures;
+
+	@Autowired
+	private AlunoRepository alunoRepository;
+
+	@Autowired
+	private RelatorioRepository relatorioRepository;
+
+	@Autowired
+	private AvaliacaoRelatorioRepository avaliacaoRelatorioRepository;
+
+	@Autowired
+	private RegistroRemocaoRepository registroRemocaoRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private IndiceRelatorios indiceRelatorios;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private Integer primeiroRelatorioId;
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < 3; i++) {
+			Aluno aluno = fixtures.aluno("aluno" + i);
+			for (int j = 0; j < 2; j++) {
+				Relatorio relatorio = fixtures.relatorio(aluno);
+				if (primeiroRelatorioId == null) {
+					primeiroRelatorioId = relatorio.getId();
+				}
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void listarRelatoriosExecutaUmaUnicaConsulta() throws Exception {
+		mockMvc.perform(get("/api/relatorios").param("tamanho", "200"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.itens[0].alunoNome").exists())
+				.andExpect(OrcamentoSql.noMaximo(1));
+	}
+
+	@Test
+	void buscarRelatorioPorIdExecutaUmaUnicaConsulta() throws Exception {
+		mockMvc.perform(get("/api/relatorios/{id}", primeiroRelatorioId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.alunoNome").value("aluno0"))
+				.andExpect(OrcamentoSql.noMaximo(1));
+	}
+
+	@Test
+	void buscarRelatorioComEtagAtualRespondeNaoModificado() throws Exception {
+		String etag = mockMvc.perform(get("/api/relatorios/{id}", primeiroRelatorioId))
+				.andExpect(status().isOk())
+				.andExpect(header().exists("Last-Modified"))
+				.andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(get("/api/relatorios/{id}", primeiroRelatorioId).header("If-None-Match", etag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""))
+				.andExpect(OrcamentoSql.noMaximo(1));
+
+		alterarComentarios(primeiroRelatorioId, "Comentários revisados");
+
+		mockMvc.perform(get("/api/relatorios/{id}", primeiroRelatorioId).header("If-None-Match", etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.comentarios").value("Comentários revisados"));
+	}
+
+	@Test
+	void buscarPorConteudoOrdenaPorRelevanciaEIgnoraExcluidos() throws Exception {
+		Aluno aluno = fixtures.aluno("aluno-busca");
+		Integer pouco = fixtures.relatorio(aluno).getId();
+		Integer muito = fixtures.relatorio(aluno).getId();
+		Integer excluido = Integer.MAX_VALUE;
+		entityManager.flush();
+		// Os relatórios do teste não passam por commit, então são indexados aqui
+		indiceRelatorios.indexar(pouco, "Montagem do kit de astronomia", "Oficina");
+		indiceRelatorios.indexar(muito, "Astronomia para escolas: observação astronomia", null);
+		indiceRelatorios.indexar(excluido, "Astronomia", null);
+		try {
+			mockMvc.perform(get("/api/relatorios/busca").param("q", "Astronomia").param("limite", "5"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.length()").value(2))
+					.andExpect(jsonPath("$[0].relatorio.id").value(muito))
+					.andExpect(jsonPath("$[1].relatorio.id").value(pouco))
+					.andExpect(jsonPath("$[0].relatorio.alunoNome").value("aluno-busca"))
+					.andExpect(OrcamentoSql.noMaximo(1));
+
+			mockMvc.perform(get("/api/relatorios/busca").param("q", "de para"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.length()").value(0))
+					.andExpect(OrcamentoSql.noMaximo(0));
+		} finally {
+			indiceRelatorios.remover(pouco);
+			indiceRelatorios.remover(muito);
+			indiceRelatorios.remover(excluido);
+		}
+	}
+
+	@Test
+	void listarRelatoriosComEtagAtualRespondeNaoModificado() throws Exception {
+		String etag = mockMvc.perform(get("/api/relatorios").param("tamanho", "200"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(get("/api/relatorios").param("tamanho", "200").header("If-None-Match", etag))
+				.andExpect(status().isNotModified())
+				.andExpect(OrcamentoSql.noMaximo(1));
+
+		alterarComentarios(primeiroRelatorioId, "Comentários revisados");
+
+		mockMvc.perform(get("/api/relatorios").param("tamanho", "200").header("If-None-Match", etag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void listarRelatoriosDoAlunoFiltraPeloPeriodo() throws Exception {
+		Aluno aluno = fixtures.aluno("aluno-periodo");
+		for (int mes = 1; mes <= 4; mes++) {
+			Relatorio relatorio = fixtures.relatorio(aluno);
+			relatorio.setDataInicial(LocalDate.of(2025, mes, 1));
+			relatorio.setDataFinal(LocalDate.of(2025, mes, 28));
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		mockMvc.perform(get("/api/alunos/{id}/relatorios", aluno.getId())
+						.param("from", "2025-02-01").param("to", "2025-03-31"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(2))
+				.andExpect(jsonPath("$[0].dataInicial").value("2025-02-01"))
+				.andExpect(jsonPath("$[1].dataInicial").value("2025-03-01"))
+				.andExpect(OrcamentoSql.noMaximo(1));
+
+		mockMvc.perform(get("/api/alunos/{id}/relatorios", aluno.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(4));
+	}
+
+	@Test
+	void listarRelatoriosDeAlunoInexistenteRespondeNaoEncontrado() throws Exception {
+		mockMvc.perform(get("/api/alunos/{id}/relatorios", Integer.MAX_VALUE))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.detail").value("Aluno não encontrado"));
+	}
+
+	// Garante que a consulta gerada pelo Hibernate para aluno e período usa o índice composto, e não uma varredura
+	@Test
+	void consultaPorAlunoEPeriodoUsaIndiceComposto() {
+		Aluno aluno = fixtures.aluno("aluno-indice");
+		fixtures.relatorio(aluno);
+		entityManager.flush();
+
+		List<QueryInfo> consultas;
+		try (CapturaSql captura = CapturaSql.iniciar(dataSource)) {
+			relatorioRepository.findResponsesByAlunoAndPeriodo(aluno.getId(),
+					LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+			consultas = captura.consultas();
+		}
+		assertThat(consultas).hasSize(1);
+		QueryInfo consulta = consultas.get(0);
+
+		String plano = entityManager.unwrap(Session.class).doReturningWork(conexao -> {
+			try (PreparedStatement explain = conexao.prepareStatement("explain " + consulta.getQuery())) {
+				for (ParameterSetOperation parametro : consulta.getParametersList().get(0)) {
+					Object[] argumentos = parametro.getArgs();
+					explain.setObject((Integer) argumentos[0], argumentos[1]);
+				}
+				try (ResultSet resultado = explain.executeQuery()) {
+					resultado.next();
+					return resultado.getString(1);
+				}
+			}
+		});
+
+		assertThat(plano).containsIgnoringCase("IDX_RELATORIOS_ALUNO_DATA");
+	}
+
+	// Um lote roda em uma transação só, que precisa caber na margem da sincronização
+	@Test
+	void lotesAcimaDoTamanhoMaximoSaoRecusados() throws Exception {
+		String importacao = "[" + "{},".repeat(1000) + "{}]";
+		mockMvc.perform(post("/api/relatorios/lote").contentType("application/json").content(importacao))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.detail").value("O lote tem 1001 itens; o máximo é 1000"))
+				.andExpect(OrcamentoSql.noMaximo(0));
+
+		String exclusao = "[" + "1,".repeat(1000) + "1]";
+		mockMvc.perform(post("/api/relatorios/lote/exclusao").contentType("application/json").content(exclusao))
+				.andExpect(status().isBadRequest())
+				.andExpect(OrcamentoSql.noMaximo(0));
+	}
+
+	@Test
+	void importarEmLoteValidaCadaLinhaEGravaEmLotesJdbc() throws Exception {
+		Aluno aluno = fixtures.aluno("aluno-importacao");
+		entityManager.flush();
+
+		StringBuilder lote = new StringBuilder("[");
+		for (int i = 0; i < 120; i++) {
+			lote.append(linha(aluno.getId(), "\"2025-03-01\"")).append(',');
+		}
+		// Sem data inicial, aluno inexistente, sem aluno e item nulo
+		lote.append(linha(aluno.getId(), "null")).append(',')
+				.append(linha(Integer.MAX_VALUE, "\"2025-03-01\"")).append(',')
+				.append(linha(null, "\"2025-03-01\"")).append(',')
+				.append("null]");
+
+		List<QueryInfo> inserts;
+		long consultasAlunos;
+		try (CapturaSql captura = CapturaSql.iniciar(dataSource)) {
+			mockMvc.perform(post("/api/relatorios/lote").contentType("application/json").content(lote.toString()))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.sucessos").value(120))
+					.andExpect(jsonPath("$.falhas").value(4))
+					.andExpect(jsonPath("$.itens[119].id").exists())
+					.andExpect(jsonPath("$.itens[120].erro").value("Data inicial é obrigatória"))
+					.andExpect(jsonPath("$.itens[121].erro").value("Aluno não encontrado"))
+					.andExpect(jsonPath("$.itens[122].erro").value("ID do aluno é obrigatório"))
+					.andExpect(jsonPath("$.itens[123].erro").value("Relatório vazio"))
+					// alunos existentes (uma consulta IN), sequence a cada 50 ids e um executeBatch a cada 50 linhas
+					.andExpect(OrcamentoSql.noMaximo(7));
+			inserts = captura.consultas().stream()
+					.filter(consulta -> consulta.getQuery().toLowerCase().startsWith("insert into relatorios"))
+					.toList();
+			consultasAlunos = captura.consultas().stream()
+					.filter(consulta -> consulta.getQuery().toLowerCase().contains("from alunos"))
+					.count();
+		}
+
+		// Os alunos das 124 linhas são conferidos de uma vez
+		assertThat(consultasAlunos).isEqualTo(1);
+		// Um lote JDBC a cada hibernate.jdbc.batch_size (50) linhas válidas
+		assertThat(inserts).extracting(consulta -> consulta.getParametersList().size()).containsExactly(50, 50, 20);
+		assertThat(relatorioRepository.findIdsByAlunoId(aluno.getId())).hasSize(120);
+	}
+
+	private static String linha(Integer alunoId, String dataInicial) {
+		return "{\"alunoId\":" + alunoId + ",\"dataInicial\":" + dataInicial
+				+ ",\"dataFinal\":\"2025-03-31\",\"resumoAtividades\":\"Importado\"}";
+	}
+
+	@Test
+	void excluirAlunoRemoveRelatoriosEAvaliacoesSemUmComandoPorRelatorio() throws Exception {
+		Aluno aluno = fixtures.aluno("aluno-formado");
+		List<Integer> relatorioIds = criarRelatoriosAvaliados(aluno, 30);
+		long registrosAntes = registroRemocaoRepository.count();
+		entityManager.flush();
+		entityManager.clear();
+
+		mockMvc.perform(delete("/api/alunos/{id}", aluno.getId()))
+				.andExpect(status().isNoContent())
+				.andExpect(OrcamentoSql.noMaximo(10));
+
+		entityManager.flush();
+		assertThat(relatorioRepository.findExistingIds(relatorioIds)).isEmpty();
+		assertThat(avaliacaoRelatorioRepository.findRelatorioIdsAvaliados(relatorioIds)).isEmpty();
+		assertThat(alunoRepository.existsById(aluno.getId())).isFalse();
+		// Um registro de exclusão por relatório e por avaliação, para a sincronização incremental
+		assertThat(registroRemocaoRepository.count() - registrosAntes).isEqualTo(60);
+	}
+
+	@Test
+	void excluirRelatoriosEmLoteReportaCadaItem() throws Exception {
+		List<Integer> relatorioIds = criarRelatoriosAvaliados(fixtures.aluno("aluno-lote"), 30);
+		entityManager.flush();
+		entityManager.clear();
+
+		StringBuilder ids = new StringBuilder("[");
+		relatorioIds.forEach(id -> ids.append(id).append(','));
+		ids.append(relatorioIds.get(0)).append(",-1]");
+
+		mockMvc.perform(post("/api/relatorios/lote/exclusao").contentType("application/json").content(ids.toString()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.sucessos").value(30))
+				.andExpect(jsonPath("$.itens[30].erro").value("Relatório repetido no lote"))
+				.andExpect(jsonPath("$.itens[31].erro").value("Relatório não encontrado"))
+				.andExpect(OrcamentoSql.noMaximo(6));
+
+		entityManager.flush();
+		assertThat(relatorioRepository.findExistingIds(relatorioIds)).isEmpty();
+	}
+
+	private List<Integer> criarRelatoriosAvaliados(Aluno aluno, int quantidade) {
+		List<Integer> ids = new ArrayList<>();
+		for (int i = 0; i < quantidade; i++) {
+			ids.add(fixtures.avaliacao(fixtures.relatorio(aluno)).getRelatorio().getId());
+		}
+		return ids;
+	}
+
+	private void alterarComentarios(Integer relatorioId, String comentarios) {
+		relatorioRepository.findById(relatorioId).orElseThrow().setComentarios(comentarios);
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+}
@@ -0,0 +1,184 @@
+package com.controlpet.controller;
+
+import com.controlpet.Fixtures;
+import com.controlpet.infra.sql.CapturaSql;
+import com.controlpet.model.Aluno;
+import com.controlpet.model.Relatorio;
+import com.controlpet.repository.AlunoRepository;
+import com.controlpet.repository.RelatorioRepository;
+import com.controlpet.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: a exportação roda em outra thread (StreamingResponseBody) e só enxerga dados confirmados
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class RelatorioExportacaoControllerTest {
+
+	private static final String CABECALHO =
+			"id,tipoRelatorio,dataInicial,dataFinal,alunoId,alunoNome,resumoAtividades,comentarios\n";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private Fixtures fixtures;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private AlunoRepository alunoRepository;
+
+	@Autowired
+	private RelatorioRepository relatorioRepository;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final List<Relatorio> relatorios = new ArrayList<>();
+	private final List<Aluno> alunos = new ArrayList<>();
+	private Aluno aluno;
+	private Relatorio comTextoEspecial;
+	private Relatorio deAbril;
+
+	@BeforeEach
+	void setUp() {
+		aluno = criarAluno("Souza, Ana");
+		comTextoEspecial = criarRelatorio(aluno, LocalDate.of(2025, 3, 1),
+				"Oficina \"Robótica\", turma A\nsegunda linha", "Sem vírgulas");
+		deAbril = criarRelatorio(aluno, LocalDate.of(2025, 4, 1), "Reunião", "Linha com\r\nCRLF");
+		criarRelatorio(criarAluno("Outro aluno"), LocalDate.of(2025, 3, 1), "De outro aluno", null);
+	}
+
+	@AfterEach
+	void tearDown() {
+		relatorioRepository.deleteAll(relatorios);
+		alunoRepository.deleteAll(alunos);
+		usuarioRepository.deleteAll(alunos.stream().map(Aluno::getUsuario).toList());
+	}
+
+	@Test
+	void exportaCsvComCamposDeTextoEscapadosConformeRfc4180() throws Exception {
+		String csv = exportar(get("/api/relatorios/exportacao")
+				.param("formato", "csv")
+				.param("alunoId", aluno.getId().toString()), "text/csv;charset=UTF-8");
+
+		assertThat(csv).isEqualTo(
+				CABECALHO
+				+ comTextoEspecial.getId() + ",Relatório Mensal,2025-03-01,2025-03-28," + aluno.getId()
+				+ ",\"Souza, Ana\",\"Oficina \"\"Robótica\"\", turma A\nsegunda linha\",Sem vírgulas\n"
+				+ deAbril.getId() + ",Relatório Mensal,2025-04-01,2025-04-28," + aluno.getId()
+				+ ",\"Souza, Ana\",Reunião,\"Linha com\r\nCRLF\"\n");
+	}
+
+	// O filtro por aluno vira uma faixa do índice composto, e não uma varredura da tabela
+	@Test
+	void exportaNdjsonFiltradoPorPeriodoEmUmaUnicaConsultaPeloIndice() throws Exception {
+		String ndjson;
+		List<QueryInfo> consultas;
+		try (CapturaSql captura = CapturaSql.iniciar(dataSource)) {
+			ndjson = exportar(get("/api/relatorios/exportacao")
+					.param("alunoId", aluno.getId().toString())
+					.param("de", "2025-03-15")
+					.param("ate", "2025-04-30"), "application/x-ndjson");
+			consultas = List.copyOf(captura.consultas());
+		}
+		assertThat(consultas).hasSize(1);
+		assertThat(plano(consultas.get(0))).containsIgnoringCase("IDX_RELATORIOS_ALUNO_DATA");
+
+		String[] linhas = ndjson.split("\n");
+		assertThat(linhas).hasSize(1);
+		JsonNode relatorio = objectMapper.readTree(linhas[0]);
+		assertThat(relatorio.get("id").asInt()).isEqualTo(deAbril.getId());
+		assertThat(relatorio.get("alunoNome").asText()).isEqualTo("Souza, Ana");
+		assertThat(relatorio.get("comentarios").asText()).isEqualTo("Linha com\r\nCRLF");
+	}
+
+	@Test
+	void exportacaoSemResultadosTrazSoOCabecalho() throws Exception {
+		String csv = exportar(get("/api/relatorios/exportacao")
+				.param("formato", "csv")
+				.param("alunoId", aluno.getId().toString())
+				.param("ate", "2024-12-31"), "text/csv;charset=UTF-8");
+
+		assertThat(csv).isEqualTo(CABECALHO);
+	}
+
+	private String exportar(MockHttpServletRequestBuilder requisicao, String tipoConteudo) throws Exception {
+		MvcResult iniciada = mockMvc.perform(requisicao)
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		iniciada.getAsyncResult();
+		return mockMvc.perform(asyncDispatch(iniciada))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(tipoConteudo))
+				.andExpect(header().string("Content-Disposition", startsWith("attachment")))
+				.andReturn().getResponse().getContentAsString();
+	}
+
+	private String plano(QueryInfo consulta) throws SQLException {
+		try (Connection conexao = dataSource.getConnection();
+			 PreparedStatement explain = conexao.prepareStatement("explain " + consulta.getQuery())) {
+			for (ParameterSetOperation parametro : consulta.getParametersList().get(0)) {
+				Object[] argumentos = parametro.getArgs();
+				explain.setObject((Integer) argumentos[0], argumentos[1]);
+			}
+			try (ResultSet resultado = explain.executeQuery()) {
+				resultado.next();
+				return resultado.getString(1);
+			}
+		}
+	}
+
+	private Aluno criarAluno(String nome) {
+		Aluno aluno = fixtures.aluno(nome);
+		alunos.add(aluno);
+		return aluno;
+	}
+
+	private Relatorio criarRelatorio(Aluno aluno, LocalDate dataInicial, String resumo, String comentarios) {
+		Relatorio relatorio = fixtures.relatorio(aluno, novo -> {
+			novo.setDataInicial(dataInicial);
+			novo.setDataFinal(dataInicial.withDayOfMonth(28));
+			novo.setResumoAtividades(resumo);
+			novo.setComentarios(comentarios);
+		});
+		relatorios.add(relatorio);
+		return relatorio;
+	}
+}
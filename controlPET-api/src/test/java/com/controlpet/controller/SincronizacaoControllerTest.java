@@ -0,0 +1,129 @@
+package com.controlpet.controller;
+
+import com.controlpet.Fixtures;
+import com.controlpet.model.Aluno;
+import com.controlpet.model.RegistroRemocao;
+import com.controlpet.model.Relatorio;
+import com.controlpet.repository.AvaliacaoRelatorioRepository;
+import com.controlpet.repository.RegistroRemocaoRepository;
+import com.controlpet.repository.RelatorioRepository;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+@Transactional
+class SincronizacaoControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private Fixtures fixtures;
+
+	@Autowired
+	private RelatorioRepository relatorioRepository;
+
+	@Autowired
+	private AvaliacaoRelatorioRepository avaliacaoRelatorioRepository;
+
+	@Autowired
+	private RegistroRemocaoRepository registroRemocaoRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private final List<Integer> relatorioIds = new ArrayList<>();
+	private final List<Integer> avaliacaoIds = new ArrayList<>();
+
+	// Datas no passado, fora da margem de sincronização
+	private LocalDateTime data = LocalDateTime.now().minusHours(1);
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < 2; i++) {
+			Aluno aluno = fixtures.aluno("sincronizado" + i);
+			for (int j = 0; j < 2; j++) {
+				Relatorio relatorio = fixtures.relatorio(aluno, novo -> novo.setAtualizadoEm(proximaData()));
+				relatorioIds.add(relatorio.getId());
+				avaliacaoIds.add(fixtures.avaliacao(relatorio, nova -> nova.setAtualizadoEm(proximaData())).getId());
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void sincronizacaoPaginadaEntregaCadaAlteracaoUmaVez() throws Exception {
+		List<Integer> relatorios = new ArrayList<>();
+		List<Integer> avaliacoes = new ArrayList<>();
+		String cursor = null;
+		int paginas = 0;
+		boolean completo = false;
+		while (!completo) {
+			String corpo = sincronizar(cursor, 3);
+			relatorios.addAll(JsonPath.read(corpo, "$.relatorios[*].id"));
+			avaliacoes.addAll(JsonPath.read(corpo, "$.avaliacoes[*].id"));
+			cursor = JsonPath.read(corpo, "$.proximoCursor");
+			completo = JsonPath.read(corpo, "$.completo");
+			paginas++;
+		}
+
+		assertThat(paginas).isEqualTo(3);
+		assertThat(relatorios).containsExactlyInAnyOrderElementsOf(relatorioIds);
+		assertThat(avaliacoes).containsExactlyInAnyOrderElementsOf(avaliacaoIds);
+
+		String semAlteracoes = sincronizar(cursor, 3);
+		assertThat((List<?>) JsonPath.read(semAlteracoes, "$.relatorios")).isEmpty();
+		assertThat((Boolean) JsonPath.read(semAlteracoes, "$.completo")).isTrue();
+	}
+
+	@Test
+	void exclusaoDeRelatorioGeraRegistrosDeRemocao() throws Exception {
+		Integer relatorioId = relatorioIds.get(0);
+		mockMvc.perform(delete("/api/relatorios/{id}", relatorioId))
+				.andExpect(status().isNoContent());
+
+		List<RegistroRemocao> registros = registroRemocaoRepository.findAll();
+		registros.forEach(registro -> registro.setRemovidoEm(data));
+		entityManager.flush();
+
+		String corpo = sincronizar(null, 200);
+		assertThat((List<Integer>) JsonPath.read(corpo, "$.removidos[?(@.tipo == 'relatorio')].id")).containsExactly(relatorioId);
+		assertThat((List<Integer>) JsonPath.read(corpo, "$.removidos[?(@.tipo == 'avaliacao')].id")).containsExactly(avaliacaoIds.get(0));
+		assertThat((List<Integer>) JsonPath.read(corpo, "$.relatorios[*].id")).doesNotContain(relatorioId);
+	}
+
+	private String sincronizar(String cursor, int tamanho) throws Exception {
+		var requisicao = get("/api/sincronizacao").param("tamanho", String.valueOf(tamanho));
+		if (cursor != null) {
+			requisicao.param("cursor", cursor);
+		}
+		return mockMvc.perform(requisicao)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+	}
+
+	private LocalDateTime proximaData() {
+		data = data.plusSeconds(1);
+		return data;
+	}
+}
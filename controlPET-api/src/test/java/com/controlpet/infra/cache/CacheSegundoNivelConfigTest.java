@@ -0,0 +1,64 @@
+package com.controlpet.infra.cache;
+
+import com.controlpet.infra.sql.CapturaSql;
+import com.controlpet.model.Usuario;
+import com.controlpet.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sem @Transactional: cada chamada ao repositório abre sua própria sessão, e só assim o segundo nível é usado
+@SpringBootTest
+class CacheSegundoNivelConfigTest {
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private Usuario usuario;
+
+	@BeforeEach
+	void setUp() {
+		usuario = new Usuario();
+		usuario.setNome("Usuário em cache");
+		usuario.setEmail("segundo-nivel-" + System.nanoTime() + "@controlpet.com");
+		usuario.setSenhaHash("hash-original");
+		usuario = usuarioRepository.save(usuario);
+	}
+
+	@AfterEach
+	void tearDown() {
+		usuarioRepository.deleteById(usuario.getId());
+	}
+
+	@Test
+	void buscaPorEmailVeONovoHashDepoisDeCadaTipoDeAlteracao() {
+		assertThat(senhaHash()).isEqualTo("hash-original");
+		try (CapturaSql captura = CapturaSql.iniciar(dataSource)) {
+			assertThat(senhaHash()).isEqualTo("hash-original");
+			assertThat(captura.consultas()).as("segunda busca vem do segundo nível").isEmpty();
+		}
+
+		// Alteração da entidade pelo Hibernate
+		Usuario carregado = usuarioRepository.findById(usuario.getId()).orElseThrow();
+		carregado.setSenhaHash("hash-save");
+		usuarioRepository.save(carregado);
+		assertThat(senhaHash()).isEqualTo("hash-save");
+
+		// UPDATE em massa, como no rehash do login
+		assertThat(usuarioRepository.substituirSenhaHash(usuario.getId(), "hash-save", "hash-rehash")).isEqualTo(1);
+		assertThat(senhaHash()).isEqualTo("hash-rehash");
+	}
+
+	private String senhaHash() {
+		return usuarioRepository.findByEmail(usuario.getEmail()).orElseThrow().getSenhaHash();
+	}
+}
@@ -0,0 +1,54 @@
+package com.controlpet.infra.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Simula um banco criado na época do IDENTITY: tabelas com linhas e sequences recém-criadas pelo ddl-auto
+class AjusteSequenciasTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private AjusteSequencias ajuste;
+
+	@BeforeEach
+	void setUp() {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:sequencias-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		for (AjusteSequencias.Sequencia sequencia : AjusteSequencias.SEQUENCIAS) {
+			jdbcTemplate.execute("create table " + sequencia.tabela() + " (id integer primary key)");
+			jdbcTemplate.execute("create sequence " + sequencia.nome() + " start with 1 increment by 50");
+		}
+		ajuste = new AjusteSequencias(new H2Dialect().getSequenceSupport(), jdbcTemplate);
+	}
+
+	private long proximoValor(String sequencia) {
+		return jdbcTemplate.queryForObject("select next value for " + sequencia, Long.class);
+	}
+
+	@Test
+	void sequenceAtrasDoMaiorIdRecomecaAcimaDele() {
+		jdbcTemplate.update("insert into avaliacoes_relatorio (id) values (1), (2), (137)");
+
+		ajuste.ajustar();
+
+		// O próximo bloco do otimizador pooled é (valor - 50, valor]: começa logo depois do 137
+		long valor = proximoValor("avaliacoes_relatorio_seq");
+		assertThat(valor - AjusteSequencias.INCREMENTO + 1).isEqualTo(138);
+	}
+
+	@Test
+	void tabelaVaziaOuSequenceAdiantadaNaoMudam() {
+		jdbcTemplate.update("insert into relatorios (id) values (10)");
+		jdbcTemplate.execute("alter sequence relatorios_seq restart with 501");
+
+		ajuste.ajustar();
+
+		assertThat(proximoValor("relatorios_seq")).isEqualTo(551);
+		assertThat(proximoValor("registros_remocao_seq")).isEqualTo(1);
+	}
+}
@@ -0,0 +1,149 @@
+package com.controlpet.infra.datasource;
+
+import com.controlpet.Fixtures;
+import com.controlpet.dto.AvaliacaoResumoDTO;
+import com.controlpet.dto.EstatisticaAvaliacaoDTO;
+import com.controlpet.event.AvaliacaoSalvaEvent;
+import com.controlpet.infra.search.IndiceRelatorios;
+import com.controlpet.model.AvaliacaoRelatorio;
+import com.controlpet.model.Relatorio;
+import com.controlpet.model.Usuario;
+import com.controlpet.repository.RelatorioRepository;
+import com.controlpet.repository.UsuarioRepository;
+import com.controlpet.service.EstatisticasAvaliacaoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A aplicação inteira sobre dois H2: cada repositório passa pelo roteamento como em produção
+@SpringBootTest(properties = {
+		"spring.datasource.url=" + RoteamentoDataSourceConfigTest.URL_PRIMARIO,
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.hikari.maximum-pool-size=3",
+		"api.datasource.replica.enabled=true",
+		"api.datasource.replica.url=" + RoteamentoDataSourceConfigTest.URL_REPLICA
+})
+class RoteamentoDataSourceConfigTest {
+
+	static final String URL_PRIMARIO = "jdbc:h2:mem:roteamento-app-primario;DB_CLOSE_DELAY=-1";
+	static final String URL_REPLICA = "jdbc:h2:mem:roteamento-app-replica;DB_CLOSE_DELAY=-1";
+
+	private final JdbcTemplate primario = h2(URL_PRIMARIO);
+	private final JdbcTemplate replica = h2(URL_REPLICA);
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private RelatorioRepository relatorioRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private Fixtures fixtures;
+
+	@Autowired
+	private EstatisticasAvaliacaoService estatisticasAvaliacaoService;
+
+	@Autowired
+	private IndiceRelatorios indiceRelatorios;
+
+	// O ddl-auto só cria as tabelas no primário; a réplica recebe o mesmo schema antes de qualquer leitura
+	@TestConfiguration
+	static class SchemaNaReplica {
+
+		@Bean
+		ApplicationListener<ContextRefreshedEvent> copiarSchemaParaReplica() {
+			return evento -> {
+				JdbcTemplate replica = h2(URL_REPLICA);
+				for (String comando : h2(URL_PRIMARIO).queryForList("script nodata", String.class)) {
+					replica.execute(comando);
+				}
+			};
+		}
+	}
+
+	@Test
+	void leiturasDosRepositoriosVaoParaAReplicaEEscritasParaOPrimario() {
+		String somenteNaReplica = "replica-" + System.nanoTime() + "@controlpet.com";
+		replica.update("insert into usuarios (id, nome, email, senha_hash, tipo) values (?, ?, ?, ?, 'aluno')",
+				Integer.MAX_VALUE - 1, "Só na réplica", somenteNaReplica, "hash");
+		assertThat(usuarioRepository.existsByEmail(somenteNaReplica)).isTrue();
+
+		Usuario usuario = new Usuario();
+		usuario.setNome("Escrito no primário");
+		usuario.setEmail("primario-" + System.nanoTime() + "@controlpet.com");
+		usuario.setSenhaHash("hash");
+		usuarioRepository.save(usuario);
+
+		assertThat(contarUsuarios(primario, usuario.getEmail())).isEqualTo(1);
+		assertThat(contarUsuarios(replica, usuario.getEmail())).isZero();
+		// Depois da escrita, a mesma requisição passa a ler do primário
+		assertThat(usuarioRepository.existsByEmail(usuario.getEmail())).isTrue();
+		assertThat(usuarioRepository.existsByEmail(somenteNaReplica)).isFalse();
+
+		// Uma nova requisição volta para a réplica, que ainda não recebeu a escrita
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		assertThat(usuarioRepository.existsByEmail(usuario.getEmail())).isFalse();
+		assertThat(usuarioRepository.existsByEmail(somenteNaReplica)).isTrue();
+	}
+
+	// As recargas só reaplicam os eventos recebidos depois de começar: o que foi confirmado antes precisa vir na leitura
+	@Test
+	void recargasDoEstadoEmMemoriaLeemDoPrimarioComAReplicaAtrasada() {
+		Relatorio relatorio = fixtures.relatorio(fixtures.aluno("Aluno da verificação"),
+				novo -> novo.setResumoAtividades("Recarga consistente"));
+		AvaliacaoRelatorio avaliacao = fixtures.avaliacao(relatorio);
+		// O que os listeners fariam após o commit
+		estatisticasAvaliacaoService.onAvaliacaoSalva(new AvaliacaoSalvaEvent(null, new AvaliacaoResumoDTO(
+				avaliacao.getId(), relatorio.getId(), relatorio.getAluno().getId(), relatorio.getDataInicial(),
+				avaliacao.getCargaHoraria(), avaliacao.getInteresseAtividades(), avaliacao.getHabilidadesDesenvolvidas())));
+		indiceRelatorios.indexar(relatorio.getId(), relatorio.getResumoAtividades(), relatorio.getComentarios());
+
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		assertThat(relatorioRepository.existsById(relatorio.getId())).as("réplica atrasada").isFalse();
+
+		assertThat(estatisticasAvaliacaoService.verificar().divergencias()).isEmpty();
+		assertThat(estatisticasAvaliacaoService.buscar(relatorio.getAluno().getId(), "2025.1"))
+				.singleElement().extracting(EstatisticaAvaliacaoDTO::totalAvaliacoes).isEqualTo(1);
+
+		indiceRelatorios.reconstruir();
+		assertThat(indiceRelatorios.buscar("consistente", 10))
+				.extracting(IndiceRelatorios.Resultado::relatorioId).containsExactly(relatorio.getId());
+	}
+
+	@Test
+	void poolPrimarioUsaAsPropriedadesHikariDoSpring() {
+		assertThat(maximoConexoes("primario")).isEqualTo(3);
+		assertThat(maximoConexoes("replica")).isEqualTo(10);
+	}
+
+	private double maximoConexoes(String pool) {
+		return meterRegistry.get("hikaricp.connections.max").tag("pool", pool).gauge().value();
+	}
+
+	private static int contarUsuarios(JdbcTemplate banco, String email) {
+		return banco.queryForObject("select count(*) from usuarios where email = ?", Integer.class, email);
+	}
+
+	private static JdbcTemplate h2(String url) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL(url);
+		dataSource.setUser("sa");
+		return new JdbcTemplate(dataSource);
+	}
+}
@@ -0,0 +1,81 @@
+package com.controlpet.infra.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Dois H2 em memória fazem o papel de primário e réplica; cada um identifica a si mesmo na tabela "origem"
+class RoteamentoDataSourceTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate leitura;
+	private TransactionTemplate escrita;
+
+	@BeforeEach
+	void setUp() {
+		DataSource primario = h2("primario");
+		DataSource replica = h2("replica");
+		DataSource dataSource = new LazyConnectionDataSourceProxy(new RoteamentoDataSource(primario, replica));
+
+		JdbcTransactionManager transactionManager = new JdbcTransactionManager(dataSource);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		escrita = new TransactionTemplate(transactionManager);
+		leitura = new TransactionTemplate(transactionManager);
+		leitura.setReadOnly(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void transacoesSomenteLeituraVaoParaAReplicaEAsDemaisParaOPrimario() {
+		assertThat(origemEm(leitura)).isEqualTo("replica");
+		assertThat(origemEm(escrita)).isEqualTo("primario");
+		// Fora de transação não há como saber se é leitura: vai para o primário
+		assertThat(origem()).isEqualTo("primario");
+	}
+
+	@Test
+	void depoisDeUmaEscritaAsLeiturasDaMesmaRequisicaoFicamNoPrimario() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		assertThat(origemEm(leitura)).isEqualTo("replica");
+
+		escrita.executeWithoutResult(status -> origem());
+		assertThat(origemEm(leitura)).isEqualTo("primario");
+
+		// Uma nova requisição volta a ler da réplica
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		assertThat(origemEm(leitura)).isEqualTo("replica");
+	}
+
+	private String origemEm(TransactionTemplate transacao) {
+		return transacao.execute(status -> origem());
+	}
+
+	private String origem() {
+		return jdbcTemplate.queryForObject("select nome from origem", String.class);
+	}
+
+	private static DataSource h2(String nome) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:roteamento-" + nome + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("create table origem (nome varchar(20))");
+		jdbcTemplate.update("insert into origem values (?)", nome);
+		return dataSource;
+	}
+}
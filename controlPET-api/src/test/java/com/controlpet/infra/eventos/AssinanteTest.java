@@ -0,0 +1,88 @@
+package com.controlpet.infra.eventos;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssinanteTest {
+
+	// Executor manual: as tarefas de envio só rodam quando o teste chama executarPendentes()
+	private final Queue<Runnable> pendentes = new ArrayDeque<>();
+	private final EmitterGravador emitter = new EmitterGravador();
+	private final AtomicInteger descartados = new AtomicInteger();
+	private final AtomicInteger encerrados = new AtomicInteger();
+
+	private Assinante novoAssinante(Integer alunoId, boolean orientador, int capacidade) {
+		return new Assinante(emitter, 1, alunoId, orientador, capacidade, pendentes::add,
+				descartados::incrementAndGet, encerrados::incrementAndGet);
+	}
+
+	private void executarPendentes() {
+		Runnable tarefa;
+		while ((tarefa = pendentes.poll()) != null) {
+			tarefa.run();
+		}
+	}
+
+	@Test
+	void filaCheiaDescartaAMensagemMaisAntiga() throws Exception {
+		Assinante assinante = novoAssinante(10, false, 2);
+
+		assinante.enfileirar(new Assinante.Mensagem("relatorio", 1, "um"));
+		assinante.enfileirar(new Assinante.Mensagem("relatorio", 2, "dois"));
+		assinante.enfileirar(new Assinante.Mensagem("relatorio", 3, "tres"));
+
+		// Uma única tarefa de envio, mesmo com várias mensagens enfileiradas
+		assertThat(pendentes).hasSize(1);
+		assertThat(descartados).hasValue(1);
+
+		executarPendentes();
+		assertThat(emitter.proximoSemEsperar()).isEqualTo("event:relatorio\nid:2\ndata:dois\n\n");
+		assertThat(emitter.proximoSemEsperar()).isEqualTo("event:relatorio\nid:3\ndata:tres\n\n");
+		assertThat(emitter.proximoSemEsperar()).isNull();
+	}
+
+	@Test
+	void novaMensagemDepoisDaDrenagemAgendaOutroEnvio() throws Exception {
+		Assinante assinante = novoAssinante(null, true, 10);
+
+		assinante.enfileirar(new Assinante.Mensagem(null, 0, "ping"));
+		executarPendentes();
+		assertThat(emitter.proximoSemEsperar()).isEqualTo(":ping\n\n");
+
+		assinante.enfileirar(new Assinante.Mensagem("avaliacao", 7, "{}"));
+		assertThat(pendentes).hasSize(1);
+		executarPendentes();
+		assertThat(emitter.proximoSemEsperar()).isEqualTo("event:avaliacao\nid:7\ndata:{}\n\n");
+	}
+
+	@Test
+	void falhaNoEnvioEncerraOAssinanteEDescartaORestoDaFila() throws Exception {
+		Assinante assinante = novoAssinante(10, false, 10);
+		emitter.falharEnvio = true;
+
+		assinante.enfileirar(new Assinante.Mensagem("relatorio", 1, "um"));
+		assinante.enfileirar(new Assinante.Mensagem("relatorio", 2, "dois"));
+		executarPendentes();
+
+		assertThat(encerrados).hasValue(1);
+		assertThat(emitter.erro).isNotNull();
+		assertThat(emitter.proximoSemEsperar()).isNull();
+	}
+
+	@Test
+	void alunoSoSeInteressaPelosProprios() {
+		Assinante aluno = novoAssinante(10, false, 1);
+		Assinante orientador = novoAssinante(null, true, 1);
+		Assinante semAluno = novoAssinante(null, false, 1);
+
+		assertThat(aluno.interessado(10)).isTrue();
+		assertThat(aluno.interessado(11)).isFalse();
+		assertThat(orientador.interessado(11)).isTrue();
+		assertThat(semAluno.interessado(10)).isFalse();
+	}
+}
@@ -0,0 +1,65 @@
+package com.controlpet.infra.eventos;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * SseEmitter de teste: guarda o texto de cada evento enviado e os callbacks de encerramento,
+ * para que os testes simulem conclusão, timeout e erro sem um servidor.
+ */
+class EmitterGravador extends SseEmitter {
+
+	private final BlockingQueue<String> enviados = new LinkedBlockingQueue<>();
+	final List<Runnable> aoConcluir = new ArrayList<>();
+	final List<Runnable> aoExpirar = new ArrayList<>();
+	final List<Consumer<Throwable>> aoFalhar = new ArrayList<>();
+	volatile boolean falharEnvio;
+	volatile Throwable erro;
+
+	@Override
+	public void send(SseEventBuilder evento) throws IOException {
+		if (falharEnvio) {
+			throw new IOException("conexão fechada pelo cliente");
+		}
+		enviados.add(evento.build().stream()
+				.map(parte -> parte.getData().toString())
+				.collect(Collectors.joining()));
+	}
+
+	@Override
+	public void onCompletion(Runnable callback) {
+		aoConcluir.add(callback);
+	}
+
+	@Override
+	public void onTimeout(Runnable callback) {
+		aoExpirar.add(callback);
+	}
+
+	@Override
+	public void onError(Consumer<Throwable> callback) {
+		aoFalhar.add(callback);
+	}
+
+	@Override
+	public void completeWithError(Throwable ex) {
+		erro = ex;
+	}
+
+	// Próximo evento enviado, esperando o envio assíncrono; null se nada chegar
+	String proximo() throws InterruptedException {
+		return enviados.poll(5, TimeUnit.SECONDS);
+	}
+
+	String proximoSemEsperar() throws InterruptedException {
+		return enviados.poll(200, TimeUnit.MILLISECONDS);
+	}
+}
@@ -0,0 +1,147 @@
+package com.controlpet.infra.eventos;
+
+import com.controlpet.dto.AvaliacaoResumoDTO;
+import com.controlpet.event.AvaliacaoSalvaEvent;
+import com.controlpet.event.RelatorioSalvoEvent;
+import com.controlpet.exception.ServicoSobrecarregadoException;
+import com.controlpet.model.Usuario;
+import com.controlpet.model.enums.TipoUsuario;
+import com.controlpet.repository.AlunoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class PublicadorEventosTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private PublicadorEventos publicador;
+
+	private PublicadorEventos novoPublicador(Duration heartbeat, int maxAssinantes) {
+		publicador = new PublicadorEventos(mock(AlunoRepository.class), new ObjectMapper(), meterRegistry,
+				Duration.ofMinutes(1), heartbeat, 100, maxAssinantes);
+		return publicador;
+	}
+
+	@AfterEach
+	void tearDown() {
+		publicador.encerrar();
+	}
+
+	private EmitterGravador conectar(Integer alunoId, boolean orientador) throws InterruptedException {
+		EmitterGravador emitter = new EmitterGravador();
+		publicador.registrar(emitter, 1, alunoId, orientador);
+		assertThat(emitter.proximo()).isEqualTo(":conectado\n\n");
+		return emitter;
+	}
+
+	private double assinantesAbertos() {
+		return meterRegistry.get("eventos.assinantes").gauge().value();
+	}
+
+	@Test
+	void relatorioChegaSoAoAlunoDonoEAosOrientadores() throws Exception {
+		novoPublicador(Duration.ofHours(1), 10);
+		EmitterGravador dono = conectar(10, false);
+		EmitterGravador outroAluno = conectar(11, false);
+		EmitterGravador orientador = conectar(null, true);
+
+		publicador.onRelatorioSalvo(new RelatorioSalvoEvent(5, 10, "resumo", "comentarios", true));
+
+		String esperado = "event:relatorio\nid:1\ndata:"
+				+ "{\"tipo\":\"relatorio\",\"acao\":\"criado\",\"id\":5,\"relatorioId\":5,\"alunoId\":10}\n\n";
+		assertThat(dono.proximo()).isEqualTo(esperado);
+		assertThat(orientador.proximo()).isEqualTo(esperado);
+		assertThat(outroAluno.proximoSemEsperar()).isNull();
+	}
+
+	@Test
+	void avaliacaoQueMudaDeAlunoAvisaTambemOAnterior() throws Exception {
+		novoPublicador(Duration.ofHours(1), 10);
+		EmitterGravador anterior = conectar(10, false);
+		EmitterGravador atual = conectar(11, false);
+		EmitterGravador terceiro = conectar(12, false);
+
+		publicador.onAvaliacaoSalva(new AvaliacaoSalvaEvent(resumo(10), resumo(11)));
+
+		assertThat(anterior.proximo()).contains("\"acao\":\"atualizado\"", "\"alunoId\":11");
+		assertThat(atual.proximo()).contains("\"acao\":\"atualizado\"", "\"alunoId\":11");
+		assertThat(terceiro.proximoSemEsperar()).isNull();
+
+		// Sem mudança de aluno, o dono recebe o evento uma única vez
+		publicador.onAvaliacaoSalva(new AvaliacaoSalvaEvent(resumo(11), resumo(11)));
+		assertThat(atual.proximo()).startsWith("event:avaliacao\n");
+		assertThat(atual.proximoSemEsperar()).isNull();
+		assertThat(anterior.proximoSemEsperar()).isNull();
+	}
+
+	@Test
+	void recusaConexoesAcimaDoLimite() {
+		novoPublicador(Duration.ofHours(1), 2);
+		Usuario orientador = new Usuario();
+		orientador.setId(1);
+		orientador.setTipo(TipoUsuario.orientador);
+
+		publicador.assinar(orientador);
+		publicador.assinar(orientador);
+
+		assertThatThrownBy(() -> publicador.assinar(orientador))
+				.isInstanceOf(ServicoSobrecarregadoException.class);
+		assertThat(assinantesAbertos()).isEqualTo(2);
+	}
+
+	@Test
+	void conclusaoTimeoutEErroRemovemOAssinante() throws Exception {
+		novoPublicador(Duration.ofHours(1), 10);
+		EmitterGravador concluido = conectar(null, true);
+		EmitterGravador expirado = conectar(null, true);
+		EmitterGravador comErro = conectar(null, true);
+		assertThat(assinantesAbertos()).isEqualTo(3);
+
+		concluido.aoConcluir.forEach(Runnable::run);
+		expirado.aoExpirar.forEach(Runnable::run);
+		comErro.aoFalhar.forEach(callback -> callback.accept(new IOException("reset")));
+		assertThat(assinantesAbertos()).isZero();
+
+		publicador.onRelatorioSalvo(new RelatorioSalvoEvent(5, 10, "resumo", "comentarios", false));
+		assertThat(concluido.proximoSemEsperar()).isNull();
+		assertThat(expirado.proximoSemEsperar()).isNull();
+		assertThat(comErro.proximoSemEsperar()).isNull();
+	}
+
+	@Test
+	void falhaNoEnvioRemoveOAssinante() throws Exception {
+		novoPublicador(Duration.ofHours(1), 10);
+		EmitterGravador emitter = conectar(null, true);
+		emitter.falharEnvio = true;
+
+		publicador.onRelatorioSalvo(new RelatorioSalvoEvent(5, 10, "resumo", "comentarios", false));
+
+		long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (assinantesAbertos() > 0 && System.nanoTime() < limite) {
+			Thread.sleep(10);
+		}
+		assertThat(assinantesAbertos()).isZero();
+		assertThat(emitter.erro).isInstanceOf(IOException.class);
+	}
+
+	@Test
+	void heartbeatEnviaComentarioPeriodico() throws Exception {
+		novoPublicador(Duration.ofMillis(50), 10);
+		EmitterGravador emitter = conectar(10, false);
+
+		assertThat(emitter.proximo()).isEqualTo(":ping\n\n");
+		assertThat(emitter.proximo()).isEqualTo(":ping\n\n");
+	}
+
+	private static AvaliacaoResumoDTO resumo(Integer alunoId) {
+		return new AvaliacaoResumoDTO(3, 5, alunoId, null, null, null, null);
+	}
+}
@@ -0,0 +1,20 @@
+package com.controlpet.infra.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalisadorTextoTest {
+
+	@Test
+	void removeAcentosStopwordsEPlurais() {
+		assertThat(AnalisadorTexto.termos("Reuniões com os Professores sobre Programação"))
+				.containsExactly("reuniao", "professor", "programacao");
+	}
+
+	@Test
+	void consultaSemAcentoEncontraTermoAcentuado() {
+		assertThat(AnalisadorTexto.termos("reuniao")).isEqualTo(AnalisadorTexto.termos("Reunião"));
+		assertThat(AnalisadorTexto.termos("materiais didáticos")).containsExactly("material", "didatico");
+	}
+}
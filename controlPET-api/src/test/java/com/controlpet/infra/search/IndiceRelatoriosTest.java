@@ -0,0 +1,79 @@
+package com.controlpet.infra.search;
+
+import com.controlpet.dto.RelatorioTextoDTO;
+import com.controlpet.repository.RelatorioRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceRelatoriosTest {
+
+	private final RelatorioRepository relatorioRepository = mock(RelatorioRepository.class);
+	private final IndiceRelatorios indice = new IndiceRelatorios(relatorioRepository);
+
+	private List<Integer> ids(String consulta) {
+		return indice.buscar(consulta, 10).stream().map(IndiceRelatorios.Resultado::relatorioId).toList();
+	}
+
+	@Test
+	void ordenaPorRelevanciaEDesempataPeloId() {
+		indice.indexar(1, "Montagem do robô", "robótica");
+		indice.indexar(2, "Oficina de robótica e robótica educacional", null);
+		indice.indexar(3, "Reunião com professores", null);
+		indice.indexar(4, "Oficina de robótica", null);
+		indice.indexar(5, "Oficina de robótica", null);
+
+		// O 2 repete o termo; 4 e 5 empatam e saem na ordem do id
+		assertThat(ids("robotica")).containsExactly(2, 4, 5, 1);
+		assertThat(indice.buscar("robotica", 2)).hasSize(2);
+		assertThat(ids("robotica reuniao").get(0)).isEqualTo(3);
+		assertThat(ids("de")).isEmpty();
+	}
+
+	@Test
+	void reindexarSubstituiOsTermosERemoverTiraDoIndice() {
+		indice.indexar(1, "Oficina de robótica", null);
+		indice.indexar(1, "Reunião com professores", null);
+
+		assertThat(ids("robotica")).isEmpty();
+		assertThat(ids("reuniao")).containsExactly(1);
+
+		indice.remover(1);
+		assertThat(ids("reuniao")).isEmpty();
+	}
+
+	@Test
+	void alteracoesDuranteAReconstrucaoNaoSePerdem() {
+		indice.indexar(3, "Texto antigo", null);
+
+		// As alterações chegam enquanto o banco está sendo lido; a leitura ainda devolve o estado anterior
+		Stream<RelatorioTextoDTO> textos = Stream.of(
+						new RelatorioTextoDTO(1, "Oficina de robótica", null),
+						new RelatorioTextoDTO(2, "Reunião com professores", null))
+				.peek(texto -> {
+					if (texto.id() == 1) {
+						indice.indexar(1, "Oficina de programação", null);
+						indice.remover(2);
+						indice.indexar(4, "Relatório criado durante a reconstrução", null);
+					}
+				});
+		when(relatorioRepository.streamTextos()).thenReturn(textos);
+
+		indice.reconstruir();
+
+		assertThat(ids("programacao")).containsExactly(1);
+		assertThat(ids("robotica")).isEmpty();
+		assertThat(ids("reuniao")).isEmpty();
+		assertThat(ids("reconstrucao")).containsExactly(4);
+		assertThat(ids("antigo")).isEmpty();
+
+		// Depois da troca, as alterações voltam a ir só para o índice em uso
+		indice.indexar(2, "Reunião com professores", null);
+		assertThat(ids("reuniao")).containsExactly(2);
+	}
+}
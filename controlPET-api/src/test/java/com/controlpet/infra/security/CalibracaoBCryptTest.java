@@ -0,0 +1,16 @@
+package com.controlpet.infra.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalibracaoBCryptTest {
+
+	@Test
+	void escolheMaiorForcaDentroDoAlvo() {
+		// 60 ms na força 10 -> 120 ms na 11 -> 240 ms na 12 -> 480 ms na 13
+		assertThat(CalibracaoBCrypt.escolherForca(60, 250, 10, 14)).isEqualTo(12);
+		assertThat(CalibracaoBCrypt.escolherForca(400, 250, 10, 14)).isEqualTo(10);
+		assertThat(CalibracaoBCrypt.escolherForca(1, 250, 10, 14)).isEqualTo(14);
+	}
+}
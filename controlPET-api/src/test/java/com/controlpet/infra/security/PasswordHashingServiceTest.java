@@ -0,0 +1,110 @@
+package com.controlpet.infra.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHashingServiceTest {
+
+	private PasswordHashingService service;
+
+	@BeforeEach
+	void setUp() {
+		// "falha" faz a verificação lançar exceção, para testar o caminho de erro
+		BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4) {
+			@Override
+			public boolean matches(CharSequence senha, String hash) {
+				if ("falha".contentEquals(senha)) {
+					throw new IllegalStateException("falha simulada");
+				}
+				return super.matches(senha, hash);
+			}
+		};
+		service = new PasswordHashingService(encoder, new SimpleMeterRegistry(), 1, 8);
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.encerrar();
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	// O que é encadeado depois do hash (ex.: gravar no banco) não pode ocupar o pool do BCrypt
+	@Test
+	void continuacoesRodamForaDoPoolDeHashComARequisicaoDeOrigem() {
+		ServletRequestAttributes requisicao = new ServletRequestAttributes(new MockHttpServletRequest());
+		RequestContextHolder.setRequestAttributes(requisicao);
+
+		String[] thread = new String[1];
+		RequestAttributes[] atributos = new RequestAttributes[1];
+		service.encode("senha").thenAccept(hash -> {
+			thread[0] = Thread.currentThread().getName();
+			atributos[0] = RequestContextHolder.getRequestAttributes();
+		}).join();
+
+		assertThat(thread[0]).startsWith("senha-hash-continuacao-");
+		assertThat(atributos[0]).isSameAs(requisicao);
+	}
+
+	@Test
+	void falhaNoHashTambemCompletaForaDoPool() {
+		String[] thread = new String[1];
+		service.matches("falha", "hash").exceptionally(erro -> {
+			thread[0] = Thread.currentThread().getName();
+			return false;
+		}).join();
+
+		assertThat(thread[0]).startsWith("senha-hash-continuacao-");
+	}
+
+	@Test
+	void rehashSoAumentaAForca() {
+		String forca4 = new BCryptPasswordEncoder(4).encode("senha");
+		String forca6 = new BCryptPasswordEncoder(6).encode("senha");
+		PasswordHashingService forca5 = new PasswordHashingService(new BCryptPasswordEncoder(5),
+				new SimpleMeterRegistry(), 1, 8);
+		try {
+			assertThat(forca5.precisaRehash(forca4)).isTrue();
+			// Um hash mais forte que o atual (ex.: gerado em outra instância) nunca é enfraquecido
+			assertThat(forca5.precisaRehash(forca6)).isFalse();
+			assertThat(service.precisaRehash(forca4)).isFalse();
+		} finally {
+			forca5.encerrar();
+		}
+	}
+
+	// Login de email inexistente: mesmo BCrypt, com a força atual, que uma senha errada
+	@Test
+	void verificacaoSemUsuarioRodaBCryptComAForcaAtual() {
+		BCryptPasswordEncoder forca5 = new BCryptPasswordEncoder(5);
+		List<String> verificados = new ArrayList<>();
+		PasswordHashingService servico = new PasswordHashingService(new BCryptPasswordEncoder(5) {
+			@Override
+			public boolean matches(CharSequence senha, String hash) {
+				verificados.add(hash);
+				return super.matches(senha, hash);
+			}
+		}, new SimpleMeterRegistry(), 1, 8);
+		try {
+			assertThat(servico.matchesSemUsuario("senha").join()).isFalse();
+			assertThat(servico.matchesSemUsuario("outra").join()).isFalse();
+
+			assertThat(verificados).hasSize(2).containsOnly(verificados.get(0));
+			assertThat(forca5.upgradeEncoding(verificados.get(0))).isFalse();
+			assertThat(new BCryptPasswordEncoder(6).upgradeEncoding(verificados.get(0))).isTrue();
+		} finally {
+			servico.encerrar();
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.controlpet.infra.security;
+
+import com.controlpet.model.Usuario;
+import com.controlpet.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: a troca de senha grava na continuação do PasswordHashingService, em outra thread
+@SpringBootTest
+@AutoConfigureMockMvc
+class UsuarioPrincipalCacheTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UsuarioPrincipalCache principalCache;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private PasswordHashingService passwordHashingService;
+
+	@Autowired
+	private TokenService tokenService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Usuario usuario;
+	private String token;
+
+	@BeforeEach
+	void setUp() {
+		usuario = new Usuario();
+		usuario.setNome("Usuário do cache");
+		usuario.setEmail("principal-" + System.nanoTime() + "@controlpet.com");
+		usuario.setSenhaHash(passwordHashingService.encode("senha-atual").join());
+		usuarioRepository.save(usuario);
+		token = tokenService.generateToken(usuario);
+	}
+
+	@AfterEach
+	void tearDown() {
+		usuarioRepository.deleteById(usuario.getId());
+		principalCache.invalidate(usuario.getEmail());
+	}
+
+	@Test
+	void trocaDeSenhaInvalidaOUsuarioEARequisicaoSeguinteRecarrega() throws Exception {
+		double acertos = buscas("hit");
+		double faltas = buscas("miss");
+
+		consultarMe();
+		assertThat(buscas("miss") - faltas).as("primeira requisição carrega").isEqualTo(1);
+		consultarMe();
+		assertThat(buscas("hit") - acertos).as("segunda requisição vem do cache").isEqualTo(1);
+
+		MvcResult troca = mockMvc.perform(put("/auth/change-password")
+						.header("Authorization", "Bearer " + token)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"currentPassword\":\"senha-atual\",\"newPassword\":\"senha-nova\"}"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(troca)).andExpect(status().isOk());
+		assertThat(buscas("hit") - acertos).as("a troca de senha autentica pelo cache").isEqualTo(2);
+
+		consultarMe();
+		assertThat(buscas("miss") - faltas).as("requisição depois da troca recarrega").isEqualTo(2);
+		String hashEmCache = principalCache.findByEmail(usuario.getEmail()).orElseThrow().getSenhaHash();
+		assertThat(passwordHashingService.matches("senha-nova", hashEmCache).join()).isTrue();
+	}
+
+	@Test
+	void emailsDesconhecidosNaoSaoArmazenados() {
+		String desconhecido = "desconhecido-" + System.nanoTime() + "@controlpet.com";
+		double acertos = buscas("hit");
+		double faltas = buscas("miss");
+
+		assertThat(principalCache.findByEmail(desconhecido)).isEmpty();
+		assertThat(principalCache.findByEmail(desconhecido)).isEmpty();
+
+		assertThat(buscas("miss") - faltas).isEqualTo(2);
+		assertThat(buscas("hit") - acertos).isZero();
+	}
+
+	private void consultarMe() throws Exception {
+		mockMvc.perform(get("/auth/me").header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.email").value(usuario.getEmail()));
+	}
+
+	private double buscas(String resultado) {
+		return meterRegistry.get("cache.gets").tag("cache", "usuario.principal").tag("result", resultado)
+				.functionCounter().count();
+	}
+}
@@ -0,0 +1,50 @@
+package com.controlpet.infra.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Guarda o SQL (com os parâmetros) executado pelo DataSource da aplicação enquanto estiver aberta,
+ * em qualquer thread. Complementa o {@link OrcamentoSql}, que só enxerga a thread da requisição.
+ * Uso: {@code try (CapturaSql captura = CapturaSql.iniciar(dataSource)) { ... captura.consultas() }}
+ */
+public final class CapturaSql implements QueryExecutionListener, AutoCloseable {
+
+	private final List<QueryExecutionListener> listeners;
+	private final List<QueryInfo> consultas = new CopyOnWriteArrayList<>();
+
+	private CapturaSql(List<QueryExecutionListener> listeners) {
+		this.listeners = listeners;
+	}
+
+	public static CapturaSql iniciar(DataSource dataSource) {
+		ProxyDataSource proxy = (ProxyDataSource) dataSource;
+		CapturaSql captura = new CapturaSql(proxy.getProxyConfig().getQueryListener().getListeners());
+		captura.listeners.add(captura);
+		return captura;
+	}
+
+	public List<QueryInfo> consultas() {
+		return consultas;
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		consultas.addAll(queryInfoList);
+	}
+
+	@Override
+	public void close() {
+		listeners.remove(this);
+	}
+}
@@ -0,0 +1,33 @@
+package com.controlpet.infra.sql;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Orçamento de consultas SQL para testes com MockMvc, lido dos cabeçalhos do {@link ContadorSqlFilter}.
+ * Uso: {@code mockMvc.perform(get("/api/relatorios")).andExpect(OrcamentoSql.noMaximo(1));}
+ * Falha quando o endpoint passa do número de consultas declarado (ex.: um N+1 introduzido sem querer).
+ */
+public final class OrcamentoSql {
+
+	private OrcamentoSql() {
+	}
+
+	public static ResultMatcher noMaximo(int consultas) {
+		return resultado -> {
+			MockHttpServletRequest requisicao = resultado.getRequest();
+			MockHttpServletResponse resposta = resultado.getResponse();
+			String executadas = resposta.getHeader(ContadorSqlFilter.CABECALHO_CONSULTAS);
+			assertThat(executadas)
+					.as("cabeçalho %s ausente (api.sql.metricas.* desligado?)", ContadorSqlFilter.CABECALHO_CONSULTAS)
+					.isNotNull();
+			assertThat(Long.parseLong(executadas))
+					.as("consultas SQL em %s %s (%s linhas)", requisicao.getMethod(), requisicao.getRequestURI(),
+							resposta.getHeader(ContadorSqlFilter.CABECALHO_LINHAS))
+					.isLessThanOrEqualTo(consultas);
+		};
+	}
+}
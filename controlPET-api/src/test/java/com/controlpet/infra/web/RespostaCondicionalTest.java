@@ -0,0 +1,63 @@
+package com.controlpet.infra.web;
+
+import com.controlpet.dto.VersaoDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RespostaCondicionalTest {
+
+	private static final LocalDateTime MARCO = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+	private final MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/recurso");
+	private final MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+	@Test
+	void semAlteracaoRespondeNaoModificadoSemCarregarOCorpo() {
+		requisicao.addHeader(HttpHeaders.IF_NONE_MATCH, etagDe(versao(2, MARCO)));
+
+		ResponseEntity<VersaoDTO> entidade = RespostaCondicional.item(new ServletWebRequest(requisicao, resposta),
+				() -> versao(2, MARCO), () -> {
+					throw new AssertionError("O corpo não deveria ser carregado");
+				}, Function.identity());
+
+		assertThat(entidade.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+
+	// O recurso muda entre a consulta de versões e o carregamento: os validadores precisam ser os do corpo
+	@Test
+	void respostaLevaOsValidadoresDoCorpoQuandoORecursoMudaEntreAsLeituras() {
+		requisicao.addHeader(HttpHeaders.IF_NONE_MATCH, etagDe(versao(1, MARCO)));
+		VersaoDTO corpo = versao(3, MARCO.plusHours(1));
+
+		ResponseEntity<VersaoDTO> entidade = RespostaCondicional.item(new ServletWebRequest(requisicao, resposta),
+				() -> versao(2, MARCO.plusMinutes(30)), () -> corpo, Function.identity());
+
+		assertThat(entidade.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(resposta.getHeaders(HttpHeaders.ETAG)).containsExactly(etagDe(corpo));
+		assertThat(resposta.getDateHeader(HttpHeaders.LAST_MODIFIED))
+				.isEqualTo(MARCO.plusHours(1).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+	}
+
+	// ETag que a própria classe gera para a versão, lido de uma resposta sem condição
+	private static String etagDe(VersaoDTO versao) {
+		MockHttpServletResponse resposta = new MockHttpServletResponse();
+		RespostaCondicional.item(new ServletWebRequest(new MockHttpServletRequest("GET", "/recurso"), resposta),
+				() -> versao, Function.identity());
+		return resposta.getHeader(HttpHeaders.ETAG);
+	}
+
+	private static VersaoDTO versao(long versao, LocalDateTime atualizadoEm) {
+		return new VersaoDTO(1, versao, atualizadoEm, null);
+	}
+}
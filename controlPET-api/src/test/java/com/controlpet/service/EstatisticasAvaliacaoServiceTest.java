@@ -0,0 +1,122 @@
+package com.controlpet.service;
+
+import com.controlpet.dto.AvaliacaoResumoDTO;
+import com.controlpet.dto.EstatisticaAvaliacaoDTO;
+import com.controlpet.dto.VerificacaoEstatisticasDTO;
+import com.controlpet.event.AvaliacaoRemovidaEvent;
+import com.controlpet.event.AvaliacaoSalvaEvent;
+import com.controlpet.model.enums.CriterioAvaliacao;
+import com.controlpet.repository.AvaliacaoRelatorioRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EstatisticasAvaliacaoServiceTest {
+
+	private static final LocalDate MARCO = LocalDate.of(2025, 3, 1);
+	private static final LocalDate AGOSTO = LocalDate.of(2025, 8, 1);
+
+	private final AvaliacaoRelatorioRepository repository = mock(AvaliacaoRelatorioRepository.class);
+	private final EstatisticasAvaliacaoService service = new EstatisticasAvaliacaoService(repository);
+
+	private static AvaliacaoResumoDTO avaliacao(int id, int alunoId, LocalDate data, CriterioAvaliacao carga) {
+		return new AvaliacaoResumoDTO(id, 100 + id, alunoId, data, carga, CriterioAvaliacao.BOM, CriterioAvaliacao.OTIMO);
+	}
+
+	private int total(int alunoId, String periodo) {
+		List<EstatisticaAvaliacaoDTO> estatisticas = service.buscar(alunoId, periodo);
+		return estatisticas.isEmpty() ? 0 : estatisticas.get(0).totalAvaliacoes();
+	}
+
+	@Test
+	void eventosAjustamOsContadoresPorAlunoEPeriodo() {
+		when(repository.streamResumos()).thenReturn(Stream.of(
+				avaliacao(1, 10, MARCO, CriterioAvaliacao.BOM),
+				avaliacao(2, 10, AGOSTO, CriterioAvaliacao.RUIM)));
+		service.reconstruir();
+
+		service.onAvaliacaoSalva(new AvaliacaoSalvaEvent(null, avaliacao(3, 10, MARCO, CriterioAvaliacao.OTIMO)));
+		assertThat(service.buscar(10, "2025.1").get(0).cargaHoraria())
+				.containsEntry(CriterioAvaliacao.BOM, 1)
+				.containsEntry(CriterioAvaliacao.OTIMO, 1);
+
+		// Alteração que muda o relatório de período
+		service.onAvaliacaoSalva(new AvaliacaoSalvaEvent(
+				avaliacao(2, 10, AGOSTO, CriterioAvaliacao.RUIM), avaliacao(2, 10, MARCO, CriterioAvaliacao.REGULAR)));
+		assertThat(total(10, "2025.1")).isEqualTo(3);
+		// Período zerado também não aparece na busca por período
+		assertThat(service.buscar(10, "2025.2")).isEmpty();
+
+		service.onAvaliacaoRemovida(new AvaliacaoRemovidaEvent(avaliacao(1, 10, MARCO, CriterioAvaliacao.BOM)));
+		assertThat(total(10, "2025.1")).isEqualTo(2);
+		// Períodos zerados não aparecem na listagem
+		assertThat(service.buscar(10, null)).extracting(EstatisticaAvaliacaoDTO::periodo).containsExactly("2025.1");
+	}
+
+	@Test
+	void eventosDuranteARecargaNaoSePerdemNemContamDuasVezes() {
+		// Lido do banco: a avaliação 1 já com a alteração (confirmada antes da leitura, evento ainda a caminho);
+		// a 2 ainda existe; a 3 foi criada depois da leitura
+		Stream<AvaliacaoResumoDTO> lidas = Stream.of(
+						avaliacao(1, 10, MARCO, CriterioAvaliacao.OTIMO),
+						avaliacao(2, 10, MARCO, CriterioAvaliacao.BOM))
+				.peek(lida -> {
+					if (lida.avaliacaoId() == 1) {
+						service.onAvaliacaoSalva(new AvaliacaoSalvaEvent(
+								avaliacao(1, 10, MARCO, CriterioAvaliacao.RUIM), avaliacao(1, 10, MARCO, CriterioAvaliacao.OTIMO)));
+						service.onAvaliacaoRemovida(new AvaliacaoRemovidaEvent(avaliacao(2, 10, MARCO, CriterioAvaliacao.BOM)));
+						service.onAvaliacaoSalva(new AvaliacaoSalvaEvent(null, avaliacao(3, 10, MARCO, CriterioAvaliacao.REGULAR)));
+					}
+				});
+		when(repository.streamResumos()).thenReturn(lidas);
+		// Relidas na troca, no mesmo snapshot da leitura: só as avaliações com eventos durante a recarga
+		when(repository.findResumosByIds(Set.of(1, 2, 3))).thenReturn(List.of(
+				avaliacao(1, 10, MARCO, CriterioAvaliacao.OTIMO),
+				avaliacao(2, 10, MARCO, CriterioAvaliacao.BOM)));
+
+		service.reconstruir();
+
+		EstatisticaAvaliacaoDTO estatistica = service.buscar(10, "2025.1").get(0);
+		assertThat(estatistica.totalAvaliacoes()).isEqualTo(2);
+		assertThat(estatistica.cargaHoraria())
+				.containsEntry(CriterioAvaliacao.OTIMO, 1)
+				.containsEntry(CriterioAvaliacao.REGULAR, 1)
+				.containsEntry(CriterioAvaliacao.BOM, 0)
+				.containsEntry(CriterioAvaliacao.RUIM, 0);
+	}
+
+	@Test
+	void verificacaoApontaSoDivergenciasReais() {
+		when(repository.streamResumos()).thenReturn(Stream.of(avaliacao(1, 10, MARCO, CriterioAvaliacao.BOM)));
+		service.reconstruir();
+
+		// Uma avaliação criada durante a verificação não é divergência: os contadores também a receberam
+		when(repository.streamResumos()).thenReturn(Stream.of(
+						avaliacao(1, 10, MARCO, CriterioAvaliacao.BOM),
+						avaliacao(2, 11, MARCO, CriterioAvaliacao.BOM))
+				.peek(lida -> {
+					if (lida.avaliacaoId() == 1) {
+						service.onAvaliacaoSalva(new AvaliacaoSalvaEvent(null, avaliacao(3, 12, MARCO, CriterioAvaliacao.BOM)));
+					}
+				}));
+
+		VerificacaoEstatisticasDTO verificacao = service.verificar();
+
+		// A avaliação 2 existia no banco sem ter passado pelos contadores
+		assertThat(verificacao.gruposVerificados()).isEqualTo(3);
+		assertThat(verificacao.divergencias()).singleElement().satisfies(divergencia -> {
+			assertThat(divergencia.alunoId()).isEqualTo(11);
+			assertThat(divergencia.esperado().totalAvaliacoes()).isEqualTo(1);
+			assertThat(divergencia.encontrado().totalAvaliacoes()).isZero();
+		});
+		assertThat(total(11, "2025.1")).isEqualTo(1);
+		assertThat(total(12, "2025.1")).isEqualTo(1);
+	}
+}
@@ -2,7 +2,7 @@
 
 import { useState, useEffect } from 'react';
 import { useRouter } from 'next/navigation';
-import api from '@/services/api';
+import api, { fetchAllPages } from '@/services/api';
 import { AxiosError } from 'axios'; // Importar AxiosError para melhor tipagem de erros
 
 // Interfaces
@@ -80,8 +80,8 @@ export default function GerenciarAlunos() {
                 }
 
                 // Busca todos os alunos
-                const alunosResponse = await api.get('/api/alunos');
-                setAlunos(alunosResponse.data);
+                const listaAlunos = await fetchAllPages<Aluno>('/api/alunos');
+                setAlunos(listaAlunos);
                 setError(null);
 
             } catch (error) {
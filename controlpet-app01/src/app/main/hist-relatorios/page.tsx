@@ -2,7 +2,7 @@
 
 import { useState, useEffect } from 'react';
 import { useRouter } from 'next/navigation';
-import api from '@/services/api';
+import api, { fetchAllPages } from '@/services/api';
 import { RelatorioDetailsModal } from '@/components/RelatorioDetailsModal';
 
 interface Relatorio {
@@ -61,8 +61,8 @@ export default function HistRelatorios() {
                 const userId = userResponse.data.id;
                 setCurrentUserId(userId);
 
-                const alunosResponse = await api.get('/api/alunos');
-                const alunoDoUsuario = alunosResponse.data.find(
+                const alunos = await fetchAllPages<any>('/api/alunos');
+                const alunoDoUsuario = alunos.find(
                     (aluno: any) => aluno.usuario.id === userId
                 );
 
@@ -72,9 +72,9 @@ export default function HistRelatorios() {
                     return;
                 }
 
-                const relatoriosResponse = await api.get('/api/relatorios');
+                const relatorios = await fetchAllPages<Relatorio>('/api/relatorios');
 
-                const relatoriosDoUsuario = relatoriosResponse.data.filter(
+                const relatoriosDoUsuario = relatorios.filter(
                     (relatorio: Relatorio) => relatorio.alunoId === alunoDoUsuario.id
                 );
 
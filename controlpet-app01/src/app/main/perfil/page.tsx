@@ -6,7 +6,7 @@ import { useAuth } from '../../../contexts/AuthContext';
 import { EditProfileModal } from '@/components/EditProfileModal';
 import { ChangePasswordModal } from '@/components/ChangePasswordModal';
 import { CreateAlunoModal } from '@/components/CreateAlunoModal';
-import api from '@/services/api';
+import api, { fetchAllPages } from '@/services/api';
 
 interface Usuario {
   id: number;
@@ -56,8 +56,8 @@ export default function Perfil() {
 
         // Se o usuário for um 'aluno', tenta buscar os dados de aluno
         if (userData.tipoUsuario === 'aluno') {
-          const alunosResponse = await api.get('/api/alunos');
-          const aluno = alunosResponse.data.find((a: any) =>
+          const alunos = await fetchAllPages<any>('/api/alunos');
+          const aluno = alunos.find((a: any) =>
             a.usuario.id === userData.id
           );
 
@@ -110,8 +110,8 @@ export default function Perfil() {
       setUsuario(userData); // Atualiza o estado do usuário com o novo tipo, se aplicável
 
       if (userData.tipoUsuario === 'aluno') { // Verifica se agora é um aluno
-        const alunosResponse = await api.get('/api/alunos');
-        const aluno = alunosResponse.data.find((a: any) =>
+        const alunos = await fetchAllPages<any>('/api/alunos');
+        const aluno = alunos.find((a: any) =>
           a.usuario.id === userData.id
         );
         if (aluno) {
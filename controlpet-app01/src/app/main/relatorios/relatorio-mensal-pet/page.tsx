@@ -2,7 +2,7 @@
 
 import { useState, useEffect } from 'react';
 import { useRouter } from 'next/navigation';
-import api from '@/services/api';
+import api, { fetchAllPages } from '@/services/api';
 
 interface AlunoInfo {
     id: number; // ID do aluno (vindo de /api/alunos)
@@ -30,8 +30,8 @@ export default function RelatorioMensalPET() {
                 const userData = userResponse.data;
 
                 // 2. Depois busca as informações completas do aluno
-                const alunosResponse = await api.get('/api/alunos');
-                const alunoData = alunosResponse.data.find((aluno: any) =>
+                const alunos = await fetchAllPages<any>('/api/alunos');
+                const alunoData = alunos.find((aluno: any) =>
                     aluno.usuario.id === userData.id
                 );
 
@@ -2,7 +2,7 @@
 
 import { useState, useEffect } from 'react';
 import { useRouter } from 'next/navigation';
-import api from '@/services/api';
+import api, { fetchAllPages } from '@/services/api';
 import { RelatorioDetailsModal } from '@/components/RelatorioDetailsModal';
 import { AvaliacaoRelatorioModal } from '@/components/AvaliacaoRelatorioModal'; // Importe seu novo modal aqui!
 import { AxiosError } from 'axios';
@@ -96,8 +96,8 @@ export default function RelatoriosPage() {
                     return;
                 }
 
-                const response = await api.get('/api/relatorios');
-                setRelatorios(response.data);
+                const listaRelatorios = await fetchAllPages<Relatorio>('/api/relatorios');
+                setRelatorios(listaRelatorios);
                 setCurrentPage(1);
 
             } catch (error) {
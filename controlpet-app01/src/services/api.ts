@@ -36,6 +36,18 @@ function handleApiError(error: unknown): never {
     throw new Error('Erro desconhecido');
 }
 
+// Percorre todas as páginas de uma listagem paginada por cursor (/api/alunos, /api/relatorios, ...)
+export const fetchAllPages = async <T>(url: string): Promise<T[]> => {
+    const itens: T[] = [];
+    let cursor: string | null = null;
+    do {
+        const response = await api.get(url, { params: { cursor, tamanho: 200 } });
+        itens.push(...response.data.itens);
+        cursor = response.data.proximoCursor;
+    } while (cursor);
+    return itens;
+};
+
 // Função para login
 export const loginUser = async (credentials: { email: string; senha: string }) => {
     try {